@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"TicTac4","c":"SelfPlayCluster","l":"accept(ServerSocket, Process)","u":"accept(java.net.ServerSocket,java.lang.Process)"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"add(StateArena, int, float)","u":"add(TicTac4.StateArena,int,float)"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"add(TrainingDataWriter.Game, int, int, byte)","u":"add(TicTac4.TrainingDataWriter.Game,int,int,byte)"},{"p":"TicTac4","c":"BoardPanel","l":"addPiece(int)"},{"p":"TicTac4","c":"BigBoard","l":"addWinner(BoardPanel)","u":"addWinner(TicTac4.BoardPanel)"},{"p":"TicTac4","c":"Bitboard","l":"ALL_BOARDS"},{"p":"TicTac4","c":"StateArena","l":"allocate()"},{"p":"TicTac4","c":"Animator.Fade","l":"alpha(long)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"analyze(long, long, boolean)","u":"analyze(long,long,boolean)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"analyze(StateArena, int)","u":"analyze(TicTac4.StateArena,int)"},{"p":"TicTac4","c":"Benchmark","l":"analyze(SubBoardAnalyzer, StateArena, int[])","u":"analyze(TicTac4.SubBoardAnalyzer,TicTac4.StateArena,int[])"},{"p":"TicTac4","c":"Benchmark","l":"ANALYZED"},{"p":"TicTac4","c":"BigBoard","l":"animator"},{"p":"TicTac4","c":"Animator","l":"Animator()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"BigBoard","l":"arena"},{"p":"TicTac4","c":"CpuPlayer","l":"arena"},{"p":"TicTac4","c":"Engine","l":"arena"},{"p":"TicTac4","c":"NTupleTrainer","l":"arena"},{"p":"TicTac4","c":"SelfPlay","l":"arena"},{"p":"TicTac4","c":"Engine","l":"ASPIRATION"},{"p":"TicTac4","c":"TimeManager","l":"baseNanos"},{"p":"TicTac4","c":"SelfPlayCluster","l":"BATCH"},{"p":"TicTac4","c":"Benchmark","l":"batchWins()"},{"p":"TicTac4","c":"BatchWins","l":"BatchWins(int)","u":"%3Cinit%3E(int)"},{"p":"TicTac4","c":"Benchmark","l":"Benchmark()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"NTupleTrainer","l":"bestMove(float)"},{"p":"TicTac4","c":"BoardPanel","l":"bigBoard"},{"p":"TicTac4","c":"BigBoard","l":"BigBoard()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"BigBoard","l":"BigBoard(CpuPlayer)","u":"%3Cinit%3E(TicTac4.CpuPlayer)"},{"p":"TicTac4","c":"Bitboard","l":"Bitboard()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"Block(int)","u":"%3Cinit%3E(int)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"blockPositions"},{"p":"TicTac4","c":"TrainingDataWriter","l":"BLOCKS"},{"p":"TicTac4","c":"NTupleNetwork","l":"BOARD_CLASS"},{"p":"TicTac4","c":"StateArena","l":"BOARD_HEIGHT_BITS"},{"p":"TicTac4","c":"Bitboard","l":"BOARD_MASK"},{"p":"TicTac4","c":"BoardPanel","l":"BoardPanel(int, int, int, int, BigBoard)","u":"%3Cinit%3E(int,int,int,int,TicTac4.BigBoard)"},{"p":"TicTac4","c":"Bitboard","l":"BOARDS"},{"p":"TicTac4","c":"Bitboard","l":"BOTTOM_MASK"},{"p":"TicTac4","c":"Bitboard","l":"bottomMask()"},{"p":"TicTac4","c":"Animator.Drop","l":"bounds"},{"p":"TicTac4","c":"Animator.Fade","l":"bounds"},{"p":"TicTac4","c":"TimeManager","l":"budget(StateArena, int)","u":"budget(TicTac4.StateArena,int)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"cache"},{"p":"TicTac4","c":"Piece","l":"canHover()"},{"p":"TicTac4","c":"StateArena","l":"canPlay(int, int, int)","u":"canPlay(int,int,int)"},{"p":"TicTac4","c":"StateArena","l":"capacity"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"capacity"},{"p":"TicTac4","c":"StateArena","l":"capacity()"},{"p":"TicTac4","c":"NTupleNetwork","l":"CELL_POSITIONS"},{"p":"TicTac4","c":"NTupleNetwork","l":"CELL_WINDOWS"},{"p":"TicTac4","c":"Bitboard","l":"cell(int, int)","u":"cell(int,int)"},{"p":"TicTac4","c":"NTupleNetwork","l":"CELLS"},{"p":"TicTac4","c":"NTupleNetwork","l":"cellState(long, long, int)","u":"cellState(long,long,int)"},{"p":"TicTac4","c":"Animator.Fade","l":"change"},{"p":"TicTac4","c":"Piece","l":"changeColor(Color)","u":"changeColor(java.awt.Color)"},{"p":"TicTac4","c":"TrainingDataReader","l":"channel"},{"p":"TicTac4","c":"TrainingDataWriter","l":"channel"},{"p":"TicTac4","c":"Engine","l":"CHECK_INTERVAL"},{"p":"TicTac4","c":"TrainingDataWriter","l":"checkFailure()"},{"p":"TicTac4","c":"BigBoard","l":"checkWinners()"},{"p":"TicTac4","c":"SelfPlayCluster","l":"claim()"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"clear()"},{"p":"TicTac4","c":"BigBoard","l":"close_dialog(String)","u":"close_dialog(java.lang.String)"},{"p":"TicTac4","c":"TrainingDataReader","l":"close()"},{"p":"TicTac4","c":"TrainingDataWriter","l":"close()"},{"p":"TicTac4","c":"Animator.Drop","l":"color"},{"p":"TicTac4","c":"Piece","l":"color"},{"p":"TicTac4","c":"TrainingDataWriter","l":"columnBytes(int)"},{"p":"TicTac4","c":"BigBoard","l":"columns"},{"p":"TicTac4","c":"BoardPanel","l":"columns"},{"p":"TicTac4","c":"TrainingDataReader","l":"columns"},{"p":"TicTac4","c":"Bitboard","l":"COLUMNS"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"combine(SubBoardAnalyzer.Outlook[], int, int, int, int, double)","u":"combine(TicTac4.SubBoardAnalyzer.Outlook[],int,int,int,int,double)"},{"p":"TicTac4","c":"Engine","l":"completedDepth"},{"p":"TicTac4","c":"Engine","l":"completedDepth()"},{"p":"TicTac4","c":"TrainingDataWriter","l":"compress"},{"p":"TicTac4","c":"TrainingDataWriter","l":"compressed"},{"p":"TicTac4","c":"BigBoard","l":"content"},{"p":"TicTac4","c":"StateArena","l":"copy(int, int)","u":"copy(int,int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"count"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"count"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"count"},{"p":"TicTac4","c":"TrainingDataReader","l":"count()"},{"p":"TicTac4","c":"BigBoard","l":"cpu"},{"p":"TicTac4","c":"CpuPlayer","l":"CpuPlayer(TimeManager, NTupleNetwork)","u":"%3Cinit%3E(TicTac4.TimeManager,TicTac4.NTupleNetwork)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"current"},{"p":"TicTac4","c":"BoardPanel","l":"currentColor"},{"p":"TicTac4","c":"StateArena","l":"data"},{"p":"TicTac4","c":"Engine","l":"deadline"},{"p":"TicTac4","c":"TrainingDataWriter","l":"deflater"},{"p":"TicTac4","c":"SelfPlay","l":"DEPTH"},{"p":"TicTac4","c":"TrainingDataWriter","l":"done"},{"p":"TicTac4","c":"SubBoardAnalyzer.Outlook","l":"draw"},{"p":"TicTac4","c":"StateArena","l":"DRAW"},{"p":"TicTac4","c":"BoardPanel","l":"drawSad()"},{"p":"TicTac4","c":"BoardPanel","l":"drawSymbol()"},{"p":"TicTac4","c":"BoardPanel","l":"drawX()"},{"p":"TicTac4","c":"BoardPanel","l":"drawY()"},{"p":"TicTac4","c":"Animator","l":"DROP_SECONDS"},{"p":"TicTac4","c":"Animator.Drop","l":"Drop(Piece, Color, Rectangle, Rectangle, Rectangle, long)","u":"%3Cinit%3E(TicTac4.Piece,java.awt.Color,java.awt.Rectangle,java.awt.Rectangle,java.awt.Rectangle,long)"},{"p":"TicTac4","c":"Animator","l":"drop(Piece, Piece, Color)","u":"drop(TicTac4.Piece,TicTac4.Piece,java.awt.Color)"},{"p":"TicTac4","c":"BoardPanel","l":"dropPiece(int)"},{"p":"TicTac4","c":"Animator","l":"drops"},{"p":"TicTac4","c":"BoardPanel","l":"editable"},{"p":"TicTac4","c":"Animator.Drop","l":"endY"},{"p":"TicTac4","c":"CpuPlayer","l":"engine"},{"p":"TicTac4","c":"SelfPlay","l":"engine"},{"p":"TicTac4","c":"Engine","l":"Engine(int, int)","u":"%3Cinit%3E(int,int)"},{"p":"TicTac4","c":"Engine","l":"Engine(int, int, NTupleNetwork)","u":"%3Cinit%3E(int,int,TicTac4.NTupleNetwork)"},{"p":"TicTac4","c":"Engine","l":"entryDepth(long)"},{"p":"TicTac4","c":"Engine","l":"entryFlag(long)"},{"p":"TicTac4","c":"Engine","l":"entryMove(long)"},{"p":"TicTac4","c":"Engine","l":"entryScore(long)"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"TicTac4","c":"Engine","l":"evaluate(StateArena, int)","u":"evaluate(TicTac4.StateArena,int)"},{"p":"TicTac4","c":"Benchmark","l":"evaluation()"},{"p":"TicTac4","c":"Engine","l":"EXACT"},{"p":"TicTac4","c":"CpuPlayer","l":"executor"},{"p":"TicTac4","c":"Main","l":"expect(String[], int, int, String)","u":"expect(java.lang.String[],int,int,java.lang.String)"},{"p":"TicTac4","c":"NTupleTrainer","l":"EXPLORATION"},{"p":"TicTac4","c":"Animator","l":"FADE_SECONDS"},{"p":"TicTac4","c":"Animator.Fade","l":"Fade(BoardPanel, Runnable)","u":"%3Cinit%3E(TicTac4.BoardPanel,java.lang.Runnable)"},{"p":"TicTac4","c":"Animator","l":"fades"},{"p":"TicTac4","c":"TrainingDataWriter","l":"failure"},{"p":"TicTac4","c":"NTupleTrainer","l":"features"},{"p":"TicTac4","c":"NTupleNetwork","l":"FEATURES"},{"p":"TicTac4","c":"NTupleNetwork","l":"features(StateArena, int, int[])","u":"features(TicTac4.StateArena,int,int[])"},{"p":"TicTac4","c":"Piece","l":"filled"},{"p":"TicTac4","c":"BigBoard","l":"findPanel(BoardPanel)","u":"findPanel(TicTac4.BoardPanel)"},{"p":"TicTac4","c":"BoardPanel","l":"findPiece(Piece)","u":"findPiece(TicTac4.Piece)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"finished"},{"p":"TicTac4","c":"CpuPlayer","l":"firstLegalMove(long[])"},{"p":"TicTac4","c":"TrainingDataWriter","l":"FLAG_DEFLATED"},{"p":"TicTac4","c":"BatchWins","l":"fours(long[], long[], int)","u":"fours(long[],long[],int)"},{"p":"TicTac4","c":"Animator","l":"FRAME_MILLIS"},{"p":"TicTac4","c":"Animator","l":"frame()"},{"p":"TicTac4","c":"TrainingDataWriter","l":"free"},{"p":"TicTac4","c":"StateArena","l":"free(int)"},{"p":"TicTac4","c":"StateArena","l":"FREED"},{"p":"TicTac4","c":"StateArena","l":"freeHead"},{"p":"TicTac4","c":"BigBoard","l":"freezeAll()"},{"p":"TicTac4","c":"Engine","l":"fromTable(int, int)","u":"fromTable(int,int)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"full"},{"p":"TicTac4","c":"SelfPlayCluster","l":"GAME_MILLIS"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"Game()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"SelfPlayCluster","l":"games"},{"p":"TicTac4","c":"Benchmark","l":"GAMES"},{"p":"TicTac4","c":"Engine","l":"generate(int, int[], int, int)","u":"generate(int,int[],int,int)"},{"p":"TicTac4","c":"BigBoard","l":"getAnimator()"},{"p":"TicTac4","c":"Piece","l":"getColor()"},{"p":"TicTac4","c":"BigBoard","l":"getColorName(Color)","u":"getColorName(java.awt.Color)"},{"p":"TicTac4","c":"Piece","l":"getOval()"},{"p":"TicTac4","c":"Animator.Drop","l":"gravity"},{"p":"TicTac4","c":"NTupleTrainer","l":"handle"},{"p":"TicTac4","c":"SelfPlay","l":"handle"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"HAS_LINE"},{"p":"TicTac4","c":"Engine","l":"hash(StateArena, int)","u":"hash(TicTac4.StateArena,int)"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"hashCode()"},{"p":"TicTac4","c":"Bitboard","l":"hasLine(int)"},{"p":"TicTac4","c":"BoardPanel","l":"hasWon(int, int)","u":"hasWon(int,int)"},{"p":"TicTac4","c":"Bitboard","l":"hasWon(long)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"HEADER_BYTES"},{"p":"TicTac4","c":"BoardPanel","l":"height"},{"p":"TicTac4","c":"Piece","l":"height"},{"p":"TicTac4","c":"Bitboard","l":"HEIGHT"},{"p":"TicTac4","c":"StateArena","l":"HEIGHT_BITS"},{"p":"TicTac4","c":"StateArena","l":"height(int, int, int)","u":"height(int,int,int)"},{"p":"TicTac4","c":"StateArena","l":"HEIGHTS_OFFSET"},{"p":"TicTac4","c":"Piece","l":"hidden"},{"p":"TicTac4","c":"Piece","l":"highlightColor(Color)","u":"highlightColor(java.awt.Color)"},{"p":"TicTac4","c":"Piece","l":"highlighted"},{"p":"TicTac4","c":"CpuPlayer","l":"HIT_FLOOR_NANOS"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"hitRate()"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"hits"},{"p":"TicTac4","c":"StateArena","l":"IN_PROGRESS"},{"p":"TicTac4","c":"Engine","l":"INFINITY"},{"p":"TicTac4","c":"TrainingDataReader","l":"inflate(int, int, int)","u":"inflate(int,int,int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"inflated"},{"p":"TicTac4","c":"TrainingDataReader","l":"inflater"},{"p":"TicTac4","c":"TrainingDataReader","l":"input"},{"p":"TicTac4","c":"BoardPanel","l":"isBoardFull()"},{"p":"TicTac4","c":"Animator","l":"isDropping(BoardPanel)","u":"isDropping(TicTac4.BoardPanel)"},{"p":"TicTac4","c":"Piece","l":"isFilled()"},{"p":"TicTac4","c":"Bitboard","l":"isFull(long)"},{"p":"TicTac4","c":"BigBoard","l":"isPersonsTurn()"},{"p":"TicTac4","c":"StateArena","l":"isRedToMove(int)"},{"p":"TicTac4","c":"BigBoard","l":"isWinnersFull()"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"Key(long, long, boolean)","u":"%3Cinit%3E(long,long,boolean)"},{"p":"TicTac4","c":"Animator.Drop","l":"landed()"},{"p":"TicTac4","c":"Animator","l":"lastDirty"},{"p":"TicTac4","c":"NTupleTrainer","l":"learn(float, float)","u":"learn(float,float)"},{"p":"TicTac4","c":"NTupleTrainer","l":"LEARNING_RATE"},{"p":"TicTac4","c":"Bitboard","l":"legalColumns(long)"},{"p":"TicTac4","c":"BatchWins","l":"legalColumns(long[], long[], int, long[])","u":"legalColumns(long[],long[],int,long[])"},{"p":"TicTac4","c":"TimeManager","l":"limitNanos"},{"p":"TicTac4","c":"NTupleNetwork","l":"LINE_BOARDS"},{"p":"TicTac4","c":"NTupleNetwork","l":"LINE_CLASS"},{"p":"TicTac4","c":"NTupleNetwork","l":"LINE_OFFSET"},{"p":"TicTac4","c":"Engine","l":"LINE_SCORES"},{"p":"TicTac4","c":"NTupleNetwork","l":"LINE_STATES"},{"p":"TicTac4","c":"NTupleNetwork","l":"lineBoards()"},{"p":"TicTac4","c":"NTupleNetwork","l":"lineIndex(int, StateArena, int)","u":"lineIndex(int,TicTac4.StateArena,int)"},{"p":"TicTac4","c":"NTupleNetwork","l":"LINES_START"},{"p":"TicTac4","c":"StateArena","l":"live"},{"p":"TicTac4","c":"StateArena","l":"load(int, long[])","u":"load(int,long[])"},{"p":"TicTac4","c":"NTupleNetwork","l":"load(Path)","u":"load(java.nio.file.Path)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"lookups"},{"p":"TicTac4","c":"Engine","l":"LOWER"},{"p":"TicTac4","c":"TrainingDataWriter","l":"MAGIC"},{"p":"TicTac4","c":"Main","l":"Main()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"Benchmark","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"TicTac4","c":"Main","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"TicTac4","c":"TrainingDataReader","l":"map(long, int)","u":"map(long,int)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"MAX_CACHED"},{"p":"TicTac4","c":"StateArena","l":"MAX_CAPACITY"},{"p":"TicTac4","c":"Engine","l":"MAX_PLY"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"MAX_POSITIONS"},{"p":"TicTac4","c":"SelfPlayCluster","l":"MAX_RESTARTS"},{"p":"TicTac4","c":"Engine","l":"maxDepth"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"meta"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"meta"},{"p":"TicTac4","c":"Bitboard","l":"META_LINES"},{"p":"TicTac4","c":"StateArena","l":"META_OFFSET"},{"p":"TicTac4","c":"StateArena","l":"meta(int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"meta(int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"metaStart"},{"p":"TicTac4","c":"NTupleNetwork","l":"mirror(int)"},{"p":"TicTac4","c":"NTupleNetwork","l":"move(int[], StateArena, int, int, int, int)","u":"move(int[],TicTac4.StateArena,int,int,int,int)"},{"p":"TicTac4","c":"Animator.Drop","l":"move(long)"},{"p":"TicTac4","c":"NTupleNetwork","l":"moveDelta(StateArena, int, int, int, int)","u":"moveDelta(TicTac4.StateArena,int,int,int,int)"},{"p":"TicTac4","c":"Engine","l":"moveOrder()"},{"p":"TicTac4","c":"Engine","l":"moves"},{"p":"TicTac4","c":"SubBoardAnalyzer.Outlook","l":"moves"},{"p":"TicTac4","c":"Engine","l":"MOVES"},{"p":"TicTac4","c":"Main","l":"moves(String[])","u":"moves(java.lang.String[])"},{"p":"TicTac4","c":"Engine","l":"negamax(int, int, int, int, long, boolean)","u":"negamax(int,int,int,int,long,boolean)"},{"p":"TicTac4","c":"Engine","l":"network"},{"p":"TicTac4","c":"NTupleTrainer","l":"network"},{"p":"TicTac4","c":"Engine","l":"NETWORK_SCALE"},{"p":"TicTac4","c":"Main","l":"network(String)","u":"network(java.lang.String)"},{"p":"TicTac4","c":"Engine","l":"networkScore(int, int)","u":"networkScore(int,int)"},{"p":"TicTac4","c":"StateArena","l":"next"},{"p":"TicTac4","c":"TrainingDataReader","l":"next"},{"p":"TicTac4","c":"TrainingDataReader","l":"next()"},{"p":"TicTac4","c":"Engine","l":"NO_DEADLINE"},{"p":"TicTac4","c":"Engine","l":"NO_MOVE"},{"p":"TicTac4","c":"SelfPlay","l":"noDeadline"},{"p":"TicTac4","c":"Engine","l":"nodes"},{"p":"TicTac4","c":"Engine","l":"nodes()"},{"p":"TicTac4","c":"NTupleNetwork","l":"NTupleNetwork()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"NTupleTrainer","l":"NTupleTrainer(NTupleNetwork, long)","u":"%3Cinit%3E(TicTac4.NTupleNetwork,long)"},{"p":"TicTac4","c":"Engine","l":"ORDER"},{"p":"TicTac4","c":"TrainingDataWriter","l":"out"},{"p":"TicTac4","c":"BatchWins","l":"outcomes(long[], long[], int, byte[])","u":"outcomes(long[],long[],int,byte[])"},{"p":"TicTac4","c":"SubBoardAnalyzer.Outlook","l":"Outlook(float, float, float, float)","u":"%3Cinit%3E(float,float,float,float)"},{"p":"TicTac4","c":"Animator.Drop","l":"oval"},{"p":"TicTac4","c":"TrainingDataWriter","l":"pad(ByteBuffer)","u":"pad(java.nio.ByteBuffer)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"padded(int)"},{"p":"TicTac4","c":"Animator","l":"paintComponent(Graphics)","u":"paintComponent(java.awt.Graphics)"},{"p":"TicTac4","c":"Piece","l":"paintComponent(Graphics)","u":"paintComponent(java.awt.Graphics)"},{"p":"TicTac4","c":"Animator.Fade","l":"panel"},{"p":"TicTac4","c":"Piece","l":"panel"},{"p":"TicTac4","c":"BigBoard","l":"panels"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"parallel"},{"p":"TicTac4","c":"Engine","l":"pastDeadline()"},{"p":"TicTac4","c":"TimeManager","l":"PER_CRITICAL_LINE"},{"p":"TicTac4","c":"TimeManager","l":"PER_RESOLVED"},{"p":"TicTac4","c":"Benchmark","l":"perBoard(long[], long[], byte[], long[])","u":"perBoard(long[],long[],byte[],long[])"},{"p":"TicTac4","c":"Benchmark","l":"perPosition(long, int)","u":"perPosition(long,int)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"pickColumn(int, SplittableRandom)","u":"pickColumn(int,java.util.SplittableRandom)"},{"p":"TicTac4","c":"Piece","l":"Piece(int, int, Color, BoardPanel, int, int)","u":"%3Cinit%3E(int,int,java.awt.Color,TicTac4.BoardPanel,int,int)"},{"p":"TicTac4","c":"BigBoard","l":"piecePlaced(BoardPanel, int)","u":"piecePlaced(TicTac4.BoardPanel,int)"},{"p":"TicTac4","c":"BoardPanel","l":"pieces"},{"p":"TicTac4","c":"NTupleTrainer","l":"play()"},{"p":"TicTac4","c":"StateArena","l":"play(int, int, int)","u":"play(int,int,int)"},{"p":"TicTac4","c":"Engine","l":"play(int, int, long)","u":"play(int,int,long)"},{"p":"TicTac4","c":"CpuPlayer","l":"play(long[], int, IntConsumer)","u":"play(long[],int,java.util.function.IntConsumer)"},{"p":"TicTac4","c":"SelfPlay","l":"play(TrainingDataWriter.Game)","u":"play(TicTac4.TrainingDataWriter.Game)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"playOut(long, long, boolean, SplittableRandom)","u":"playOut(long,long,boolean,java.util.SplittableRandom)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"playouts"},{"p":"TicTac4","c":"Benchmark","l":"PLAYOUTS"},{"p":"TicTac4","c":"SelfPlayCluster","l":"POLL_MILLIS"},{"p":"TicTac4","c":"CpuPlayer","l":"ponder(long[])"},{"p":"TicTac4","c":"CpuPlayer","l":"ponderDeadline"},{"p":"TicTac4","c":"CpuPlayer","l":"pondering"},{"p":"TicTac4","c":"CpuPlayer","l":"ponderMove"},{"p":"TicTac4","c":"CpuPlayer","l":"ponderStart"},{"p":"TicTac4","c":"BigBoard","l":"position"},{"p":"TicTac4","c":"SelfPlay","l":"position"},{"p":"TicTac4","c":"TrainingDataWriter","l":"positions"},{"p":"TicTac4","c":"Benchmark","l":"POSITIONS"},{"p":"TicTac4","c":"TrainingDataWriter","l":"positions()"},{"p":"TicTac4","c":"NTupleNetwork","l":"POW3"},{"p":"TicTac4","c":"NTupleNetwork","l":"POW4"},{"p":"TicTac4","c":"CpuPlayer","l":"predicted"},{"p":"TicTac4","c":"Engine","l":"previousPv"},{"p":"TicTac4","c":"Engine","l":"previousPvLength"},{"p":"TicTac4","c":"Engine","l":"pvLength"},{"p":"TicTac4","c":"Engine","l":"pvTable"},{"p":"TicTac4","c":"NTupleTrainer","l":"random"},{"p":"TicTac4","c":"SelfPlay","l":"random"},{"p":"TicTac4","c":"SelfPlay","l":"RANDOM_MOVES"},{"p":"TicTac4","c":"NTupleTrainer","l":"randomMove()"},{"p":"TicTac4","c":"SelfPlay","l":"randomMove()"},{"p":"TicTac4","c":"Benchmark","l":"randomPositions(long[], long[], Random)","u":"randomPositions(long[],long[],java.util.Random)"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"read(DataInput)","u":"read(java.io.DataInput)"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"red"},{"p":"TicTac4","c":"SubBoardAnalyzer.Outlook","l":"red"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"red"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"red"},{"p":"TicTac4","c":"StateArena","l":"RED"},{"p":"TicTac4","c":"StateArena","l":"RED_OFFSET"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"RED_WON"},{"p":"TicTac4","c":"StateArena","l":"red(int, int)","u":"red(int,int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"red(int, int)","u":"red(int,int)"},{"p":"TicTac4","c":"BatchWins","l":"redFours"},{"p":"TicTac4","c":"StateArena","l":"redMask(int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"redStart"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"redToMove"},{"p":"TicTac4","c":"StateArena","l":"reset(int)"},{"p":"TicTac4","c":"BoardPanel","l":"resetAll()"},{"p":"TicTac4","c":"StateArena","l":"resolvedMask(int)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"restarts"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"result"},{"p":"TicTac4","c":"StateArena","l":"RESULT_SHIFT"},{"p":"TicTac4","c":"StateArena","l":"result(int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"result(int)"},{"p":"TicTac4","c":"StateArena","l":"result(long)"},{"p":"TicTac4","c":"TrainingDataReader","l":"resultStart"},{"p":"TicTac4","c":"Animator","l":"reveal(BoardPanel, Runnable)","u":"reveal(TicTac4.BoardPanel,java.lang.Runnable)"},{"p":"TicTac4","c":"Benchmark","l":"ROUNDS"},{"p":"TicTac4","c":"BigBoard","l":"rows"},{"p":"TicTac4","c":"BoardPanel","l":"rows"},{"p":"TicTac4","c":"Bitboard","l":"ROWS"},{"p":"TicTac4","c":"Workers.Job","l":"run(int)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"run(int, int, Path, boolean)","u":"run(int,int,java.nio.file.Path,boolean)"},{"p":"TicTac4","c":"SelfPlay","l":"run(int, Path, boolean)","u":"run(int,java.nio.file.Path,boolean)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"run(int[])"},{"p":"TicTac4","c":"NTupleTrainer","l":"run(NTupleNetwork, int)","u":"run(TicTac4.NTupleNetwork,int)"},{"p":"TicTac4","c":"Workers","l":"run(String, int, Workers.Job<E>)","u":"run(java.lang.String,int,TicTac4.Workers.Job)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"runSlot(int)"},{"p":"TicTac4","c":"NTupleNetwork","l":"sameCells(int[], int[])","u":"sameCells(int[],int[])"},{"p":"TicTac4","c":"StateArena","l":"save(int, long[])","u":"save(int,long[])"},{"p":"TicTac4","c":"NTupleNetwork","l":"save(Path)","u":"save(java.nio.file.Path)"},{"p":"TicTac4","c":"Engine","l":"score"},{"p":"TicTac4","c":"Engine","l":"score()"},{"p":"TicTac4","c":"CpuPlayer","l":"scratch"},{"p":"TicTac4","c":"NTupleTrainer","l":"scratch"},{"p":"TicTac4","c":"Engine","l":"search(long[], AtomicLong)","u":"search(long[],java.util.concurrent.atomic.AtomicLong)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"seconds()"},{"p":"TicTac4","c":"SelfPlay","l":"seconds(long)"},{"p":"TicTac4","c":"SelfPlay","l":"SelfPlay(long)","u":"%3Cinit%3E(long)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"SelfPlayCluster(int, TrainingDataWriter)","u":"%3Cinit%3E(int,TicTac4.TrainingDataWriter)"},{"p":"TicTac4","c":"SelfPlayCluster.WriterException","l":"serialVersionUID"},{"p":"TicTac4","c":"SelfPlayCluster","l":"serve(Socket, int[])","u":"serve(java.net.Socket,int[])"},{"p":"TicTac4","c":"BoardPanel","l":"set()"},{"p":"TicTac4","c":"Piece","l":"setColor(Color)","u":"setColor(java.awt.Color)"},{"p":"TicTac4","c":"BoardPanel","l":"setDefaultBorder(Piece)","u":"setDefaultBorder(TicTac4.Piece)"},{"p":"TicTac4","c":"BoardPanel","l":"setEditable(Boolean)","u":"setEditable(java.lang.Boolean)"},{"p":"TicTac4","c":"Piece","l":"setHidden(Boolean)","u":"setHidden(java.lang.Boolean)"},{"p":"TicTac4","c":"BoardPanel","l":"setHighlightBorder(Piece)","u":"setHighlightBorder(TicTac4.Piece)"},{"p":"TicTac4","c":"BoardPanel","l":"setTurn(Color)","u":"setTurn(java.awt.Color)"},{"p":"TicTac4","c":"NTupleNetwork","l":"SIDE_OFFSET"},{"p":"TicTac4","c":"StateArena","l":"SIDE_SHIFT"},{"p":"TicTac4","c":"Benchmark","l":"sink"},{"p":"TicTac4","c":"TrainingDataReader","l":"size"},{"p":"TicTac4","c":"StateArena","l":"size()"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"size()"},{"p":"TicTac4","c":"BigBoard","l":"snapshot"},{"p":"TicTac4","c":"Engine","l":"stack"},{"p":"TicTac4","c":"Animator.Drop","l":"start"},{"p":"TicTac4","c":"Animator.Fade","l":"start"},{"p":"TicTac4","c":"SelfPlayCluster","l":"start"},{"p":"TicTac4","c":"SelfPlayCluster","l":"START_MILLIS"},{"p":"TicTac4","c":"Animator.Fade","l":"start(long)"},{"p":"TicTac4","c":"Animator.Fade","l":"started"},{"p":"TicTac4","c":"SelfPlayCluster","l":"startWorker(int, long)","u":"startWorker(int,long)"},{"p":"TicTac4","c":"Animator.Drop","l":"startY"},{"p":"TicTac4","c":"StateArena","l":"StateArena(int)","u":"%3Cinit%3E(int)"},{"p":"TicTac4","c":"SelfPlayCluster","l":"stop(Process)","u":"stop(java.lang.Process)"},{"p":"TicTac4","c":"Piece","l":"stopHover()"},{"p":"TicTac4","c":"Engine","l":"stopped"},{"p":"TicTac4","c":"CpuPlayer","l":"stopPondering()"},{"p":"TicTac4","c":"Engine","l":"store(long, int, int, int, int, int)","u":"store(long,int,int,int,int,int)"},{"p":"TicTac4","c":"StateArena","l":"STRIDE"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"SubBoardAnalyzer(int, boolean)","u":"%3Cinit%3E(int,boolean)"},{"p":"TicTac4","c":"Benchmark","l":"subBoards()"},{"p":"TicTac4","c":"NTupleNetwork","l":"sum(int[])"},{"p":"TicTac4","c":"NTupleNetwork","l":"sum(StateArena, int)","u":"sum(TicTac4.StateArena,int)"},{"p":"TicTac4","c":"Engine","l":"sums"},{"p":"TicTac4","c":"TrainingDataWriter","l":"swap()"},{"p":"TicTac4","c":"BoardPanel","l":"switchTurn()"},{"p":"TicTac4","c":"Animator.Drop","l":"target"},{"p":"TicTac4","c":"Engine","l":"THREAT_SCORE"},{"p":"TicTac4","c":"Bitboard","l":"threats(long, int)","u":"threats(long,int)"},{"p":"TicTac4","c":"Bitboard","l":"threats(long, long)","u":"threats(long,long)"},{"p":"TicTac4","c":"BigBoard","l":"tic_tac_toe_row(Color, Color, Color)","u":"tic_tac_toe_row(java.awt.Color,java.awt.Color,java.awt.Color)"},{"p":"TicTac4","c":"BigBoard","l":"tic_tac_toe_win(Color[][])","u":"tic_tac_toe_win(java.awt.Color[][])"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"TIED"},{"p":"TicTac4","c":"StateArena","l":"TIED_SHIFT"},{"p":"TicTac4","c":"StateArena","l":"tiedMask(int)"},{"p":"TicTac4","c":"CpuPlayer","l":"time"},{"p":"TicTac4","c":"Benchmark","l":"time(Runnable)","u":"time(java.lang.Runnable)"},{"p":"TicTac4","c":"TimeManager","l":"TimeManager(long, long)","u":"%3Cinit%3E(long,long)"},{"p":"TicTac4","c":"Animator","l":"timer"},{"p":"TicTac4","c":"Bitboard","l":"TOP_MASK"},{"p":"TicTac4","c":"Engine","l":"toTable(int, int)","u":"toTable(int,int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"TrainingDataReader(Path)","u":"%3Cinit%3E(java.nio.file.Path)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"TrainingDataWriter(Path, int, boolean)","u":"%3Cinit%3E(java.nio.file.Path,int,boolean)"},{"p":"TicTac4","c":"Engine","l":"ttEntries"},{"p":"TicTac4","c":"Engine","l":"ttKeys"},{"p":"TicTac4","c":"Engine","l":"ttMask"},{"p":"TicTac4","c":"Piece","l":"turnColor"},{"p":"TicTac4","c":"SelfPlayCluster","l":"unclaimed"},{"p":"TicTac4","c":"Piece","l":"unhighlightColor()"},{"p":"TicTac4","c":"Animator","l":"union(Rectangle, Rectangle)","u":"union(java.awt.Rectangle,java.awt.Rectangle)"},{"p":"TicTac4","c":"Engine","l":"UPPER"},{"p":"TicTac4","c":"Main","l":"usage(String, int)","u":"usage(java.lang.String,int)"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"value"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"value"},{"p":"TicTac4","c":"NTupleNetwork","l":"value(float)"},{"p":"TicTac4","c":"TrainingDataReader","l":"value(int)"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"value(SubBoardAnalyzer.Outlook[])","u":"value(TicTac4.SubBoardAnalyzer.Outlook[])"},{"p":"TicTac4","c":"TrainingDataReader","l":"valueStart"},{"p":"TicTac4","c":"Benchmark","l":"WARMUP"},{"p":"TicTac4","c":"NTupleNetwork","l":"weights"},{"p":"TicTac4","c":"BoardPanel","l":"width"},{"p":"TicTac4","c":"Piece","l":"width"},{"p":"TicTac4","c":"Engine","l":"WIN"},{"p":"TicTac4","c":"TrainingDataReader","l":"window"},{"p":"TicTac4","c":"TrainingDataReader","l":"WINDOW_BYTES"},{"p":"TicTac4","c":"NTupleNetwork","l":"WINDOW_CLASS"},{"p":"TicTac4","c":"NTupleNetwork","l":"WINDOW_CLASSES"},{"p":"TicTac4","c":"NTupleNetwork","l":"WINDOW_STATES"},{"p":"TicTac4","c":"NTupleNetwork","l":"windowIndex(int, long, long)","u":"windowIndex(int,long,long)"},{"p":"TicTac4","c":"NTupleNetwork","l":"WINDOWS"},{"p":"TicTac4","c":"TrainingDataReader","l":"windowStart"},{"p":"TicTac4","c":"BoardPanel","l":"winner()"},{"p":"TicTac4","c":"BigBoard","l":"winners"},{"p":"TicTac4","c":"BoardPanel","l":"winningColor"},{"p":"TicTac4","c":"SelfPlayCluster","l":"work(int, long)","u":"work(int,long)"},{"p":"TicTac4","c":"Workers","l":"Workers()","u":"%3Cinit%3E()"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"write(DataOutput)","u":"write(java.io.DataOutput)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"write(TrainingDataWriter.Game, int)","u":"write(TicTac4.TrainingDataWriter.Game,int)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"writeBlock(TrainingDataWriter.Block)","u":"writeBlock(TicTac4.TrainingDataWriter.Block)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"writeBlocks()"},{"p":"TicTac4","c":"SelfPlayCluster","l":"writer"},{"p":"TicTac4","c":"SelfPlayCluster.WriterException","l":"WriterException(IOException)","u":"%3Cinit%3E(java.io.IOException)"},{"p":"TicTac4","c":"TrainingDataWriter","l":"writerThread"},{"p":"TicTac4","c":"SubBoardAnalyzer.Key","l":"yellow"},{"p":"TicTac4","c":"SubBoardAnalyzer.Outlook","l":"yellow"},{"p":"TicTac4","c":"TrainingDataWriter.Block","l":"yellow"},{"p":"TicTac4","c":"TrainingDataWriter.Game","l":"yellow"},{"p":"TicTac4","c":"StateArena","l":"YELLOW"},{"p":"TicTac4","c":"StateArena","l":"YELLOW_OFFSET"},{"p":"TicTac4","c":"StateArena","l":"YELLOW_SHIFT"},{"p":"TicTac4","c":"SubBoardAnalyzer","l":"YELLOW_WON"},{"p":"TicTac4","c":"StateArena","l":"yellow(int, int)","u":"yellow(int,int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"yellow(int, int)","u":"yellow(int,int)"},{"p":"TicTac4","c":"BatchWins","l":"yellowFours"},{"p":"TicTac4","c":"StateArena","l":"yellowMask(int)"},{"p":"TicTac4","c":"TrainingDataReader","l":"yellowStart"},{"p":"TicTac4","c":"Engine","l":"ZOBRIST"},{"p":"TicTac4","c":"Engine","l":"ZOBRIST_YELLOW_TO_MOVE"},{"p":"TicTac4","c":"Engine","l":"zobrist()"},{"p":"TicTac4","c":"Engine","l":"zobristIndex(boolean, int, int)","u":"zobristIndex(boolean,int,int)"}];updateSearchResults();
\ No newline at end of file
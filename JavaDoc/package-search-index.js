@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"TicTac4"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"TicTac4","l":"Animator"},{"p":"TicTac4","l":"BatchWins"},{"p":"TicTac4","l":"Benchmark"},{"p":"TicTac4","l":"BigBoard"},{"p":"TicTac4","l":"Bitboard"},{"p":"TicTac4","l":"TrainingDataWriter.Block"},{"p":"TicTac4","l":"BoardPanel"},{"p":"TicTac4","l":"CpuPlayer"},{"p":"TicTac4","l":"Animator.Drop"},{"p":"TicTac4","l":"Engine"},{"p":"TicTac4","l":"Animator.Fade"},{"p":"TicTac4","l":"TrainingDataWriter.Game"},{"p":"TicTac4","l":"Workers.Job"},{"p":"TicTac4","l":"SubBoardAnalyzer.Key"},{"p":"TicTac4","l":"Main"},{"p":"TicTac4","l":"NTupleNetwork"},{"p":"TicTac4","l":"NTupleTrainer"},{"p":"TicTac4","l":"SubBoardAnalyzer.Outlook"},{"p":"TicTac4","l":"Piece"},{"p":"TicTac4","l":"SelfPlay"},{"p":"TicTac4","l":"SelfPlayCluster"},{"p":"TicTac4","l":"StateArena"},{"p":"TicTac4","l":"SubBoardAnalyzer"},{"p":"TicTac4","l":"TimeManager"},{"p":"TicTac4","l":"TrainingDataReader"},{"p":"TicTac4","l":"TrainingDataWriter"},{"p":"TicTac4","l":"Workers"},{"p":"TicTac4","l":"SelfPlayCluster.WriterException"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1,240 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class animates pieces dropping into a Connect-4 game, and the switch to the Tic-Tac-Toe symbol when a game is
+ * finished. It is the JFrame's glass pane, so it can draw on top of every Connect-4 game, and it has no mouse listeners,
+ * so clicks still go through to the Pieces underneath.
+ * <p>
+ * There is one Timer for the whole JFrame, running at 60 frames a second only while something is moving. Each frame
+ * only repaints the rectangle covering where the moving pieces were and are now. Positions are worked out from the
+ * time passed, not the number of frames, so if the computer falls behind, frames are skipped instead of slowing down.
+ */
+class Animator extends JComponent
+{
+   private static final int FRAME_MILLIS = 1000 / 60;
+   private static final double DROP_SECONDS = 0.25; // Time for a piece to fall from the top row to the bottom
+   private static final double FADE_SECONDS = 0.3; // Time for the Tic-Tac-Toe symbol to fade in
+
+   private final Timer timer;
+   private final List<Drop> drops = new ArrayList<>(); // Pieces that are falling
+   private final List<Fade> fades = new ArrayList<>(); // Finished Connect-4 games showing their symbol
+   private Rectangle lastDirty; // Everything drawn in the last frame, to be cleared in the next one
+
+   public Animator()
+   {
+      setOpaque(false);
+      timer = new Timer(FRAME_MILLIS, e -> frame());
+      timer.setCoalesce(true); // Drop ticks that pile up while the event dispatch thread is busy
+   }
+
+   /**
+    * Starts a piece falling down its column. The piece should already have its color, and will be hidden until the
+    * falling piece reaches it.
+    *
+    * @param top    The Piece in the top row of the column, where the falling starts
+    * @param target The Piece the falling piece lands on
+    * @param color  The color of the falling piece
+    */
+   public void drop(Piece top, Piece target, Color color)
+   {
+      Rectangle from = SwingUtilities.convertRectangle(top.getParent(), top.getBounds(), this);
+      Rectangle to = SwingUtilities.convertRectangle(target.getParent(), target.getBounds(), this);
+      target.setHidden(true);
+      drops.add(new Drop(target, color, top.getOval(), from, to, System.nanoTime()));
+      timer.start();
+   }
+
+   /**
+    * Shows the Tic-Tac-Toe symbol on a finished Connect-4 game. Waits for pieces still falling in the game to land,
+    * then runs the change (which should set the Pieces' colors without repainting them) and fades it in.
+    *
+    * @param panel  The Connect-4 game that was finished
+    * @param change Sets the Pieces to the symbol
+    */
+   public void reveal(BoardPanel panel, Runnable change)
+   {
+      fades.add(new Fade(panel, change));
+      timer.start();
+   }
+
+   /**
+    * Moves everything along to where it should be by now, and repaints only what changed.
+    */
+   private void frame()
+   {
+      long now = System.nanoTime();
+      Rectangle dirty = lastDirty;
+      Rectangle drawn = null;
+
+      for (int i = drops.size() - 1; i >= 0; i--)
+      {
+         Drop drop = drops.get(i);
+         drop.move(now);
+         if (drop.landed())
+         {
+            drops.remove(i);
+            drop.target.setHidden(false); // The Piece repaints itself with its color
+         } else
+         {
+            drawn = union(drawn, drop.bounds);
+         }
+      }
+
+      for (int i = fades.size() - 1; i >= 0; i--)
+      {
+         Fade fade = fades.get(i);
+         if (! fade.started && ! isDropping(fade.panel))
+            fade.start(now);
+         if (! fade.started)
+            continue;
+         if (fade.alpha(now) <= 0)
+            fades.remove(i);
+         else
+            drawn = union(drawn, fade.bounds);
+      }
+
+      dirty = union(dirty, drawn);
+      if (dirty != null)
+         repaint(dirty);
+      lastDirty = drawn;
+
+      if (drops.isEmpty() && fades.isEmpty())
+         timer.stop();
+   }
+
+   /**
+    * Paints the falling pieces, and the white cover fading away over newly finished Connect-4 games.
+    *
+    * @param g The graphics object used to display
+    */
+   @Override
+   protected void paintComponent(Graphics g)
+   {
+      long now = System.nanoTime();
+      Graphics2D g2 = (Graphics2D) g;
+      for (Drop drop : drops)
+      {
+         g2.setColor(drop.color);
+         g2.fillOval(drop.bounds.x + drop.oval.x, drop.bounds.y + drop.oval.y, drop.oval.width, drop.oval.height);
+      }
+
+      Composite composite = g2.getComposite();
+      for (Fade fade : fades)
+      {
+         if (! fade.started)
+            continue;
+         g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, fade.alpha(now)));
+         g2.setColor(Color.WHITE);
+         g2.fillRect(fade.bounds.x, fade.bounds.y, fade.bounds.width, fade.bounds.height);
+      }
+      g2.setComposite(composite);
+   }
+
+   private boolean isDropping(BoardPanel panel)
+   {
+      for (Drop drop : drops)
+      {
+         if (drop.target.getParent() == panel)
+            return true;
+      }
+      return false;
+   }
+
+   private static Rectangle union(Rectangle a, Rectangle b)
+   {
+      if (a == null)
+         return b == null ? null : new Rectangle(b);
+      if (b == null)
+         return a;
+      return a.union(b);
+   }
+
+   /**
+    * A piece falling from the top of its column, speeding up as it falls
+    */
+   private static class Drop
+   {
+      private final Piece target;
+      private final Color color;
+      private final Rectangle oval; // The oval inside of a cell
+      private final Rectangle bounds; // Where the piece is now
+      private final int startY;
+      private final int endY;
+      private final double gravity; // Pixels per second squared
+      private final long start;
+
+      Drop(Piece target, Color color, Rectangle oval, Rectangle from, Rectangle to, long start)
+      {
+         this.target = target;
+         this.color = color;
+         this.oval = oval;
+         this.start = start;
+         bounds = new Rectangle(from);
+         startY = from.y;
+         endY = to.y;
+         // Falling the whole board takes DROP_SECONDS, shorter falls take less time, like a real Connect-4 board
+         double board = Bitboard.ROWS * from.height;
+         gravity = 2 * board / (DROP_SECONDS * DROP_SECONDS);
+      }
+
+      void move(long now)
+      {
+         double seconds = (now - start) / 1e9;
+         bounds.y = (int) Math.min(endY, startY + gravity * seconds * seconds / 2);
+      }
+
+      boolean landed()
+      {
+         return bounds.y >= endY;
+      }
+   }
+
+   /**
+    * A finished Connect-4 game, with a white cover that fades out to show its Tic-Tac-Toe symbol
+    */
+   private class Fade
+   {
+      private final BoardPanel panel;
+      private final Runnable change;
+      private Rectangle bounds;
+      private boolean started;
+      private long start;
+
+      Fade(BoardPanel panel, Runnable change)
+      {
+         this.panel = panel;
+         this.change = change;
+      }
+
+      void start(long now)
+      {
+         change.run();
+         panel.repaint(); // One repaint for every Piece in the game
+         bounds = SwingUtilities.convertRectangle(panel.getParent(), panel.getBounds(), Animator.this);
+         started = true;
+         start = now;
+      }
+
+      float alpha(long now)
+      {
+         return (float) Math.max(0, 1 - (now - start) / 1e9 / FADE_SECONDS);
+      }
+   }
+}
@@ -0,0 +1,109 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+/**
+ * Checks many independent Connect-4 games at once, for code that simulates lots of games instead of showing one. The
+ * games are passed as two arrays of bitboards, red[i] and yellow[i] being the same game, rather than as objects.
+ * <p>
+ * The four in a row and open column loops only use shifts, ands and ors on long arrays, with no branches, so the JIT
+ * can turn them into SIMD instructions. The results are written into arrays given by the caller, nothing is allocated
+ * per call.
+ */
+final class BatchWins
+{
+   private final long[] redFours; // Scratch space, non-zero where red has four in a row
+   private final long[] yellowFours; // Scratch space, non-zero where yellow has four in a row
+
+   /**
+    * @param capacity The most games that will be checked in one call
+    */
+   BatchWins(int capacity)
+   {
+      redFours = new long[capacity];
+      yellowFours = new long[capacity];
+   }
+
+   /**
+    * Finds the outcome of each Connect-4 game. Red is checked first, then yellow, then whether the board is full.
+    *
+    * @param red      Red's bitboards
+    * @param yellow   Yellow's bitboards
+    * @param count    How many games to check, starting at index 0
+    * @param outcomes Filled with StateArena.RED, YELLOW, DRAW, or IN_PROGRESS for each game
+    */
+   void outcomes(long[] red, long[] yellow, int count, byte[] outcomes)
+   {
+      fours(red, redFours, count);
+      fours(yellow, yellowFours, count);
+      for (int i = 0; i < count; i++)
+      {
+         // Each of these is 1 or 0, worked out with sign bits instead of comparisons so there are no branches
+         long redWon = (redFours[i] | - redFours[i]) >>> 63;
+         long yellowWon = (yellowFours[i] | - yellowFours[i]) >>> 63 & ~ redWon;
+         long open = ~(red[i] | yellow[i]) & Bitboard.BOARD_MASK;
+         long full = ~(open | - open) >>> 63 & ~ (redWon | yellowWon);
+         outcomes[i] = (byte) (redWon * StateArena.RED | yellowWon * StateArena.YELLOW | full * StateArena.DRAW);
+      }
+   }
+
+   /**
+    * Finds the open columns of each Connect-4 game, same as Bitboard.legalColumns.
+    *
+    * @param red     Red's bitboards
+    * @param yellow  Yellow's bitboards
+    * @param count   How many games to check, starting at index 0
+    * @param columns Filled with a 7 bit mask for each game, bit c is set if column c can be played
+    */
+   static void legalColumns(long[] red, long[] yellow, int count, long[] columns)
+   {
+      final int top = Bitboard.ROWS - 1;
+      final int h = Bitboard.HEIGHT - 1; // Moving to the next column's top cell, less one bit for the packed result
+      for (int i = 0; i < count; i++)
+      {
+         long open = ~(red[i] | yellow[i]) & Bitboard.TOP_MASK;
+         columns[i] = (open >>> top) & 1L
+                 | (open >>> (top + h)) & 2L
+                 | (open >>> (top + 2 * h)) & 4L
+                 | (open >>> (top + 3 * h)) & 8L
+                 | (open >>> (top + 4 * h)) & 16L
+                 | (open >>> (top + 5 * h)) & 32L
+                 | (open >>> (top + 6 * h)) & 64L;
+      }
+   }
+
+   /**
+    * Same as Bitboard.hasWon for every game, but leaves the four in a row masks instead of a boolean so the loop stays
+    * all longs.
+    *
+    * @param discs The bitboards of one color
+    * @param fours Filled with a non-zero value where there is four in a row
+    * @param count How many games to check
+    */
+   static void fours(long[] discs, long[] fours, int count)
+   {
+      final int h = Bitboard.HEIGHT;
+      for (int i = 0; i < count; i++)
+      {
+         long d = discs[i];
+         long horizontal = d & (d >>> h);
+         long down = d & (d >>> (h - 1));
+         long up = d & (d >>> (h + 1));
+         long vertical = d & (d >>> 1);
+         fours[i] = (horizontal & (horizontal >>> (2 * h)))
+                 | (down & (down >>> (2 * (h - 1))))
+                 | (up & (up >>> (2 * (h + 1))))
+                 | (vertical & (vertical >>> 2));
+      }
+   }
+}
@@ -0,0 +1,263 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.util.Random;
+
+/**
+ * Small timing harness for the headless game code, run with: java -cp TicTac4.jar TicTac4.Benchmark
+ * <p>
+ * Each benchmark is warmed up before it is timed, and prints the time per game (or position) for every version being
+ * compared.
+ */
+final class Benchmark
+{
+   private static final int POSITIONS = 1 << 16; // Connect-4 games per batch
+   private static final int ROUNDS = 200; // Passes over the batch per timing
+   private static final int WARMUP = 5; // Timings thrown away while the JIT warms up
+   private static final int GAMES = 1 << 12; // Whole games per batch, for the evaluation benchmark
+   private static final int ANALYZED = 200; // Positions looked at by the SubBoardAnalyzer benchmark
+   private static final int PLAYOUTS = 1024; // Random games per Connect-4 position in the SubBoardAnalyzer benchmark
+
+   private static volatile long sink; // Results go here, so the JIT can't skip the work
+
+   public static void main(String[] args)
+   {
+      batchWins();
+      evaluation();
+      subBoards();
+   }
+
+   /**
+    * Compares checking each Connect-4 game on its own, through Bitboard, against BatchWins.
+    */
+   private static void batchWins()
+   {
+      long[] red = new long[POSITIONS];
+      long[] yellow = new long[POSITIONS];
+      randomPositions(red, yellow, new Random(4));
+
+      byte[] outcomes = new byte[POSITIONS];
+      long[] columns = new long[POSITIONS];
+      BatchWins batch = new BatchWins(POSITIONS);
+
+      for (int pass = 0; pass < WARMUP + 1; pass++)
+      {
+         long single = time(() -> perBoard(red, yellow, outcomes, columns));
+         long batched = time(() -> {
+            batch.outcomes(red, yellow, POSITIONS, outcomes);
+            BatchWins.legalColumns(red, yellow, POSITIONS, columns);
+         });
+         if (pass == WARMUP)
+         {
+            System.out.printf("win/draw/columns, per board: %.2f ns/board%n", perPosition(single, POSITIONS));
+            System.out.printf("win/draw/columns, batched:   %.2f ns/board (%.1fx)%n", perPosition(batched, POSITIONS),
+                    (double) single / batched);
+         }
+      }
+   }
+
+   /**
+    * Compares Engine.evaluate against an NTupleNetwork, both adding up every pattern from scratch and updating the sum
+    * for one move, which is what the Engine does while searching.
+    */
+   private static void evaluation()
+   {
+      Random random = new Random(4);
+      NTupleNetwork network = new NTupleNetwork();
+      for (int i = 0; i < network.weights.length; i++)
+      {
+         network.weights[i] = (float) random.nextGaussian() * 0.1f;
+      }
+
+      // Pairs of games one move apart, from random games stopped after a random number of moves
+      StateArena arena = new StateArena(2 * GAMES);
+      int[] parents = new int[GAMES];
+      int[] children = new int[GAMES];
+      int[] moves = new int[GAMES];
+      for (int i = 0; i < GAMES; i++)
+      {
+         parents[i] = arena.allocate();
+         children[i] = arena.allocate();
+         int length = random.nextInt(120);
+         for (int m = 0; ; m++)
+         {
+            int move;
+            do
+            {
+               move = random.nextInt(Engine.MOVES);
+            } while (! arena.canPlay(parents[i], move / Bitboard.COLUMNS, move % Bitboard.COLUMNS));
+            arena.copy(parents[i], children[i]);
+            if (arena.play(children[i], move / Bitboard.COLUMNS, move % Bitboard.COLUMNS) != StateArena.IN_PROGRESS
+                    || m == length)
+            {
+               moves[i] = move;
+               break;
+            }
+            arena.copy(children[i], parents[i]);
+         }
+      }
+
+      for (int pass = 0; pass < WARMUP + 1; pass++)
+      {
+         long heuristic = time(() -> {
+            long total = 0;
+            for (int i = 0; i < GAMES; i++)
+            {
+               total += Engine.evaluate(arena, parents[i]);
+            }
+            sink = total;
+         });
+         long full = time(() -> {
+            float total = 0;
+            for (int i = 0; i < GAMES; i++)
+            {
+               total += network.sum(arena, parents[i]);
+            }
+            sink = Float.floatToIntBits(total);
+         });
+         long incremental = time(() -> {
+            float total = 0;
+            for (int i = 0; i < GAMES; i++)
+            {
+               int move = moves[i];
+               total += network.moveDelta(arena, parents[i], children[i], move / Bitboard.COLUMNS,
+                       move % Bitboard.COLUMNS);
+            }
+            sink = Float.floatToIntBits(total);
+         });
+         if (pass == WARMUP)
+         {
+            System.out.printf("evaluate, heuristic:        %.2f ns/position%n", perPosition(heuristic, GAMES));
+            System.out.printf("evaluate, n-tuple full:     %.2f ns/position (%.2fx)%n", perPosition(full, GAMES),
+                    (double) heuristic / full);
+            System.out.printf("evaluate, n-tuple one move: %.2f ns/position (%.1fx)%n",
+                    perPosition(incremental, GAMES), (double) heuristic / incremental);
+         }
+      }
+   }
+
+   /**
+    * Compares SubBoardAnalyzer looking at the nine Connect-4 games in parallel against one after another, on the
+    * positions of a few random games. Each timing starts with an empty cache, and consecutive positions share all but
+    * one Connect-4 game, as they would when analyzing a game as it is played.
+    */
+   private static void subBoards()
+   {
+      Random random = new Random(4);
+      StateArena arena = new StateArena(ANALYZED + 1);
+      int[] positions = new int[ANALYZED];
+      int handle = arena.allocate();
+      for (int i = 0; i < ANALYZED; i++)
+      {
+         if (arena.result(handle) != StateArena.IN_PROGRESS)
+            arena.reset(handle);
+         int move;
+         do
+         {
+            move = random.nextInt(Engine.MOVES);
+         } while (! arena.canPlay(handle, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS));
+         arena.play(handle, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS);
+         positions[i] = arena.allocate();
+         arena.copy(handle, positions[i]);
+      }
+
+      for (int pass = 0; pass < WARMUP + 1; pass++)
+      {
+         SubBoardAnalyzer sequential = new SubBoardAnalyzer(PLAYOUTS, false);
+         SubBoardAnalyzer parallel = new SubBoardAnalyzer(PLAYOUTS, true);
+         long oneByOne = analyze(sequential, arena, positions);
+         long together = analyze(parallel, arena, positions);
+         if (pass == WARMUP)
+         {
+            System.out.printf("sub-boards, sequential: %.3f ms/position (cache hits %.0f%%)%n",
+                    oneByOne / 1e6 / ANALYZED, 100 * sequential.hitRate());
+            System.out.printf("sub-boards, parallel:   %.3f ms/position (%.1fx on %d cores)%n",
+                    together / 1e6 / ANALYZED, (double) oneByOne / together, Runtime.getRuntime().availableProcessors());
+         }
+      }
+   }
+
+   private static long analyze(SubBoardAnalyzer analyzer, StateArena arena, int[] positions)
+   {
+      long start = System.nanoTime();
+      double total = 0;
+      for (int position : positions)
+      {
+         total += SubBoardAnalyzer.value(analyzer.analyze(arena, position));
+      }
+      sink = Double.doubleToLongBits(total);
+      return System.nanoTime() - start;
+   }
+
+   /**
+    * The same work as BatchWins, calling Bitboard once per Connect-4 game.
+    */
+   private static void perBoard(long[] red, long[] yellow, byte[] outcomes, long[] columns)
+   {
+      for (int i = 0; i < POSITIONS; i++)
+      {
+         int outcome;
+         if (Bitboard.hasWon(red[i]))
+            outcome = StateArena.RED;
+         else if (Bitboard.hasWon(yellow[i]))
+            outcome = StateArena.YELLOW;
+         else if (Bitboard.isFull(red[i] | yellow[i]))
+            outcome = StateArena.DRAW;
+         else
+            outcome = StateArena.IN_PROGRESS;
+         outcomes[i] = (byte) outcome;
+         columns[i] = Bitboard.legalColumns(red[i] | yellow[i]);
+      }
+   }
+
+   /**
+    * Fills the arrays with Connect-4 games made of random moves, stopping after a random number of pieces.
+    */
+   private static void randomPositions(long[] red, long[] yellow, Random random)
+   {
+      for (int i = 0; i < red.length; i++)
+      {
+         int pieces = random.nextInt(Bitboard.ROWS * Bitboard.COLUMNS + 1);
+         int[] heights = new int[Bitboard.COLUMNS];
+         for (int p = 0; p < pieces; p++)
+         {
+            int column;
+            do
+            {
+               column = random.nextInt(Bitboard.COLUMNS);
+            } while (heights[column] == Bitboard.ROWS);
+            long bit = 1L << (column * Bitboard.HEIGHT + heights[column]++);
+            if (p % 2 == 0)
+               red[i] |= bit;
+            else
+               yellow[i] |= bit;
+         }
+      }
+   }
+
+   private static long time(Runnable work)
+   {
+      long start = System.nanoTime();
+      for (int r = 0; r < ROUNDS; r++)
+      {
+         work.run();
+      }
+      return System.nanoTime() - start;
+   }
+
+   private static double perPosition(long nanos, int positions)
+   {
+      return (double) nanos / ((long) ROUNDS * positions);
+   }
+}
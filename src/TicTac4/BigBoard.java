@@ -33,12 +33,34 @@ class BigBoard extends JFrame
    private final Color[][] winners; // Matrix of Colors that correspond with the winners of Connect-4
 
    private final JPanel content; // The JPanel that houses each Panel of Connect-4 games
+   private final Animator animator; // Draws moving pieces on top of every Connect-4 game
+
+   // Only used when playing against the CPU, which plays yellow
+   private final CpuPlayer cpu;
+   private final StateArena arena; // Holds a copy of the game for the CPU to search
+   private final int position; // The game's handle in the arena
+   private final long[] snapshot; // The game, saved out of the arena to hand to the CPU
 
    /**
-    * Constructor for the JFrame. Sets the size, initializes the panels and matrices, styles, and sets up the close button
+    * Constructor for a game between two people
     */
    public BigBoard()
    {
+      this(null);
+   }
+
+   /**
+    * Constructor for the JFrame. Sets the size, initializes the panels and matrices, styles, and sets up the close button
+    *
+    * @param cpu The CPU to play yellow, or null for a game between two people
+    */
+   public BigBoard(CpuPlayer cpu)
+   {
+      this.cpu = cpu;
+      arena = new StateArena(1);
+      position = arena.allocate();
+      snapshot = new long[StateArena.STRIDE];
+
       // Getting the current monitor, setting the JFrame size (square) to it's height
       GraphicsDevice gd = this.getGraphicsConfiguration().getDevice();
       int size = gd.getDisplayMode().getHeight() - 50;
@@ -49,6 +71,10 @@ class BigBoard extends JFrame
 
       content = new JPanel(new GridLayout(rows, columns)); // Initializing the JPanel that holds Connect-4 Panels
 
+      animator = new Animator(); // One animator for every Connect-4 game, drawn over all of them
+      this.setGlassPane(animator);
+      animator.setVisible(true);
+
 
       /*
          Loops through each row and column of the Tic-Tac-Toe game (content panel), adding a new Connect-4 game to each grid section
@@ -93,6 +119,70 @@ class BigBoard extends JFrame
       checkWinners(); // Check if there is a Tic-Tac-Toe winner after every Connect-4 win
    }
 
+   /**
+    * Used by the Connect-4 panels to animate their pieces
+    *
+    * @return The animator shared by every Connect-4 game
+    */
+   public Animator getAnimator()
+   {
+      return animator;
+   }
+
+   /**
+    * Called by a Connect-4 panel after a piece has been added to it. When playing against the CPU, this keeps the
+    * CPU's copy of the game up to date, gives every panel the same turn, and asks the CPU to move or to ponder.
+    *
+    * @param panel  The Connect-4 panel the piece was added to
+    * @param column The column the piece was added to
+    */
+   public void piecePlaced(BoardPanel panel, int column)
+   {
+      if (cpu == null)
+         return; // Two people, each Connect-4 game keeps its own turns
+
+      int[] temp = findPanel(panel);
+      int board = Objects.requireNonNull(temp)[0] * columns + temp[1];
+      arena.play(position, board, column);
+
+      boolean redToMove = arena.isRedToMove(position);
+      for (int i = 0; i < rows; i++)
+      {
+         for (int j = 0; j < columns; j++)
+         {
+            panels[i][j].setTurn(redToMove ? Color.RED : Color.YELLOW);
+         }
+      }
+
+      if (arena.result(position) != StateArena.IN_PROGRESS)
+      {
+         cpu.stopPondering();
+         return;
+      }
+
+      arena.save(position, snapshot);
+      if (redToMove)
+      {
+         cpu.ponder(snapshot); // The person's turn, think about their likely reply
+      } else
+      {
+         cpu.play(snapshot, board * Bitboard.COLUMNS + column, move -> {
+            int cpuBoard = move / Bitboard.COLUMNS;
+            panels[cpuBoard / columns][cpuBoard % columns].dropPiece(move % Bitboard.COLUMNS);
+         });
+      }
+   }
+
+   /**
+    * Used to determine if the person can add a piece right now, which is always unless it is the CPU's turn
+    *
+    * @return True if clicks should add pieces, false otherwise
+    */
+   public boolean isPersonsTurn()
+   {
+      return cpu == null || arena.isRedToMove(position);
+   }
+
    /**
     * This function is to check the winners matrix, seeing if there is a Tic-Tac-Toe winner or if the game is a tie.
     */
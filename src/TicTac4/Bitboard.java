@@ -0,0 +1,168 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+/**
+ * Helper functions for storing a Connect-4 game as a pair of longs (one per color) instead of a matrix of Pieces. Each
+ * column takes 7 bits, 6 for the rows and one spare on top so that shifting never spills into the next column. Bit 0
+ * of a column is the bottom row, which is the last row of the Piece matrix in BoardPanel.
+ * <p>
+ * The Tic-Tac-Toe game is kept the same way, as a 9 bit mask per color where bit (row * 3 + column) is a Connect-4 game.
+ */
+final class Bitboard
+{
+   // Connect-4 size, the same as the BoardPanels made by BigBoard
+   static final int ROWS = 6;
+   static final int COLUMNS = 7;
+   static final int HEIGHT = ROWS + 1; // Bits used by one column, including the spare bit
+
+   static final int BOARDS = 9; // Number of Connect-4 games in the Tic-Tac-Toe grid
+   static final int ALL_BOARDS = (1 << BOARDS) - 1; // Mask with every Connect-4 game set
+
+   static final long BOTTOM_MASK = bottomMask(); // The bottom cell of every column
+   static final long BOARD_MASK = BOTTOM_MASK * ((1L << ROWS) - 1); // Every playable cell, no spare bits
+   static final long TOP_MASK = BOTTOM_MASK << (ROWS - 1); // The top cell of every column
+
+   // Each possible Tic-Tac-Toe line as a mask of Connect-4 games: rows, columns, then diagonals
+   static final int[] META_LINES = {
+           0b000000111, 0b000111000, 0b111000000,
+           0b001001001, 0b010010010, 0b100100100,
+           0b100010001, 0b001010100
+   };
+
+   private Bitboard()
+   {
+   }
+
+   /**
+    * Used to find the bit of a cell, using the same row and column numbers as the Piece matrix (row 0 is the top)
+    *
+    * @param row    The Piece's row
+    * @param column The Piece's column
+    * @return The bit index of the cell
+    */
+   static int cell(int row, int column)
+   {
+      return column * HEIGHT + (ROWS - 1 - row);
+   }
+
+   /**
+    * Checks whether a single color has four in a row anywhere on the board. Each direction is checked by shifting the
+    * board onto itself, so it does not matter where the last piece was dropped.
+    *
+    * @param discs The bitboard of one color
+    * @return True if there are four in a row, false otherwise
+    */
+   static boolean hasWon(long discs)
+   {
+      long m = discs & (discs >>> HEIGHT); // Horizontal
+      if ((m & (m >>> (2 * HEIGHT))) != 0)
+         return true;
+      m = discs & (discs >>> (HEIGHT - 1)); // Diagonal, going down to the right
+      if ((m & (m >>> (2 * (HEIGHT - 1)))) != 0)
+         return true;
+      m = discs & (discs >>> (HEIGHT + 1)); // Diagonal, going up to the right
+      if ((m & (m >>> (2 * (HEIGHT + 1)))) != 0)
+         return true;
+      m = discs & (discs >>> 1); // Vertical
+      return (m & (m >>> 2)) != 0;
+   }
+
+   /**
+    * Finds every empty cell that would give a color four in a row if it had a piece, whether or not the cell can be
+    * played right now.
+    *
+    * @param discs    The bitboard of one color
+    * @param occupied Both colors' bitboards or'd together
+    * @return The bitboard of the winning cells
+    */
+   static long threats(long discs, long occupied)
+   {
+      // Vertical, only ever the cell on top
+      long r = (discs << 1) & (discs << 2) & (discs << 3);
+
+      r |= threats(discs, HEIGHT); // Horizontal
+      r |= threats(discs, HEIGHT - 1); // Diagonal, going down to the right
+      r |= threats(discs, HEIGHT + 1); // Diagonal, going up to the right
+
+      return r & (BOARD_MASK ^ (occupied & BOARD_MASK));
+   }
+
+   /**
+    * Used to determine if the Connect-4 game is full of pieces, no empty spots
+    *
+    * @param occupied Both colors' bitboards or'd together
+    * @return True if full, false otherwise
+    */
+   static boolean isFull(long occupied)
+   {
+      return (occupied & BOARD_MASK) == BOARD_MASK;
+   }
+
+   /**
+    * Finds every column that still has room for a piece
+    *
+    * @param occupied Both colors' bitboards or'd together
+    * @return A 7 bit mask, bit c is set if column c can be played
+    */
+   static int legalColumns(long occupied)
+   {
+      long open = ~occupied & TOP_MASK;
+      int columns = 0;
+      for (int c = 0; c < COLUMNS; c++)
+      {
+         columns |= (int) (open >>> (c * HEIGHT + ROWS - 1 - c)) & (1 << c);
+      }
+      return columns;
+   }
+
+   /**
+    * Checks if any Tic-Tac-Toe line is completely covered by the given mask
+    *
+    * @param boards A 9 bit mask of Connect-4 games
+    * @return True if a full line is covered, false otherwise
+    */
+   static boolean hasLine(int boards)
+   {
+      for (int line : META_LINES)
+      {
+         if ((boards & line) == line)
+            return true;
+      }
+      return false;
+   }
+
+   /**
+    * The cells that complete three pieces in a line with the given shift, from either end or from a gap in the middle
+    */
+   private static long threats(long discs, int shift)
+   {
+      long pair = (discs << shift) & (discs << (2 * shift));
+      long r = pair & (discs << (3 * shift)); // The cell after three in a row
+      r |= pair & (discs >>> shift); // The gap, with two before and one after
+      pair = (discs >>> shift) & (discs >>> (2 * shift));
+      r |= pair & (discs << shift); // The gap, with one before and two after
+      r |= pair & (discs >>> (3 * shift)); // The cell before three in a row
+      return r;
+   }
+
+   private static long bottomMask()
+   {
+      long mask = 0;
+      for (int c = 0; c < COLUMNS; c++)
+      {
+         mask |= 1L << (c * HEIGHT);
+      }
+      return mask;
+   }
+}
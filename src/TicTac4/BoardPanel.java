@@ -245,12 +245,23 @@ class BoardPanel extends JPanel
    }
 
    /**
-    * Called when a piece is to be added to the board. If it can be filled, do as so and switch the turns.
-    * Also checks if the Connect-4 game has a winner after each added piece.
+    * Called when a piece is to be added to the board by clicking. Ignored while the CPU is taking its turn.
     *
     * @param column The column for a piece to be "dropped" in.
     */
    public void addPiece(int column)
+   {
+      if (bigBoard.isPersonsTurn())
+         dropPiece(column);
+   }
+
+   /**
+    * Adds a piece to the board. If it can be filled, do as so and switch the turns.
+    * Also checks if the Connect-4 game has a winner after each added piece.
+    *
+    * @param column The column for a piece to be "dropped" in.
+    */
+   public void dropPiece(int column)
    {
       if (editable)
       { // Only add when editable
@@ -259,6 +270,7 @@ class BoardPanel extends JPanel
             if (! pieces[i][column].isFilled())
             {
                pieces[i][column].changeColor(currentColor);
+               bigBoard.getAnimator().drop(pieces[0][column], pieces[i][column], currentColor);
                switchTurn();
 
                if (hasWon(i, column))
@@ -267,6 +279,7 @@ class BoardPanel extends JPanel
                   winner();
                }
 
+               bigBoard.piecePlaced(this, column); // Calls the piecePlaced function in the JFrame class
                return;
             }
          }
@@ -283,6 +296,16 @@ class BoardPanel extends JPanel
       this.editable = b;
    }
 
+   /**
+    * Sets whose turn it is, used when every Connect-4 game shares the same turns
+    *
+    * @param color The color of the next piece added
+    */
+   public void setTurn(Color color)
+   {
+      this.currentColor = color;
+   }
+
    /**
     * Every time a piece is added, the turn needs to be changed. This function does as so.
     */
@@ -299,9 +322,19 @@ class BoardPanel extends JPanel
 
    /**
     * When the game has been won, or tied, reset all pieces and display the Tic-Tac-Toe symbol with the same color.
-    * If the game was tied, display a sad face ):
+    * If the game was tied, display a sad face ): The change is animated, after the last piece has finished dropping.
     */
    private void winner()
+   {
+      bigBoard.getAnimator().reveal(this, this::drawSymbol);
+      bigBoard.addWinner(this); // Calls the addWinner function in the JFrame class
+   }
+
+   /**
+    * Sets the pieces to the Tic-Tac-Toe symbol for the winning color. The pieces are not repainted, the Animator
+    * repaints the whole panel once when it shows the change.
+    */
+   private void drawSymbol()
    {
       //reset all to white
       resetAll();
@@ -316,7 +349,6 @@ class BoardPanel extends JPanel
       {
          drawSad();
       }
-      bigBoard.addWinner(this); // Calls the addWinner function in the JFrame class
    }
 
    /**
@@ -328,7 +360,7 @@ class BoardPanel extends JPanel
       {
          for (int j = 0; j < columns; j++)
          {
-            pieces[i][j].changeColor(Color.WHITE);
+            pieces[i][j].setColor(Color.WHITE);
          }
       }
    }
@@ -344,17 +376,17 @@ class BoardPanel extends JPanel
     */
    private void drawX()
    {
-      pieces[1][1].changeColor(Color.RED);
-      pieces[0][0].changeColor(Color.RED);
-      pieces[2][2].changeColor(Color.RED);
-      pieces[3][3].changeColor(Color.RED);
-      pieces[4][4].changeColor(Color.RED);
-      pieces[5][5].changeColor(Color.RED);
-      pieces[5][1].changeColor(Color.RED);
-      pieces[4][2].changeColor(Color.RED);
-      pieces[2][4].changeColor(Color.RED);
-      pieces[1][5].changeColor(Color.RED);
-      pieces[0][6].changeColor(Color.RED);
+      pieces[1][1].setColor(Color.RED);
+      pieces[0][0].setColor(Color.RED);
+      pieces[2][2].setColor(Color.RED);
+      pieces[3][3].setColor(Color.RED);
+      pieces[4][4].setColor(Color.RED);
+      pieces[5][5].setColor(Color.RED);
+      pieces[5][1].setColor(Color.RED);
+      pieces[4][2].setColor(Color.RED);
+      pieces[2][4].setColor(Color.RED);
+      pieces[1][5].setColor(Color.RED);
+      pieces[0][6].setColor(Color.RED);
    }
 
    /**
@@ -368,20 +400,20 @@ class BoardPanel extends JPanel
     */
    private void drawY()
    {
-      pieces[1][1].changeColor(Color.YELLOW);
-      pieces[2][1].changeColor(Color.YELLOW);
-      pieces[3][1].changeColor(Color.YELLOW);
-      pieces[4][1].changeColor(Color.YELLOW);
-      pieces[0][2].changeColor(Color.YELLOW);
-      pieces[5][2].changeColor(Color.YELLOW);
-      pieces[5][3].changeColor(Color.YELLOW);
-      pieces[0][3].changeColor(Color.YELLOW);
-      pieces[0][4].changeColor(Color.YELLOW);
-      pieces[5][4].changeColor(Color.YELLOW);
-      pieces[1][5].changeColor(Color.YELLOW);
-      pieces[2][5].changeColor(Color.YELLOW);
-      pieces[3][5].changeColor(Color.YELLOW);
-      pieces[4][5].changeColor(Color.YELLOW);
+      pieces[1][1].setColor(Color.YELLOW);
+      pieces[2][1].setColor(Color.YELLOW);
+      pieces[3][1].setColor(Color.YELLOW);
+      pieces[4][1].setColor(Color.YELLOW);
+      pieces[0][2].setColor(Color.YELLOW);
+      pieces[5][2].setColor(Color.YELLOW);
+      pieces[5][3].setColor(Color.YELLOW);
+      pieces[0][3].setColor(Color.YELLOW);
+      pieces[0][4].setColor(Color.YELLOW);
+      pieces[5][4].setColor(Color.YELLOW);
+      pieces[1][5].setColor(Color.YELLOW);
+      pieces[2][5].setColor(Color.YELLOW);
+      pieces[3][5].setColor(Color.YELLOW);
+      pieces[4][5].setColor(Color.YELLOW);
    }
 
    /**
@@ -395,13 +427,13 @@ class BoardPanel extends JPanel
     */
    private void drawSad()
    {
-      pieces[1][2].changeColor(Color.BLACK);
-      pieces[1][4].changeColor(Color.BLACK);
-      pieces[4][1].changeColor(Color.BLACK);
-      pieces[3][2].changeColor(Color.BLACK);
-      pieces[3][3].changeColor(Color.BLACK);
-      pieces[3][4].changeColor(Color.BLACK);
-      pieces[4][5].changeColor(Color.BLACK);
+      pieces[1][2].setColor(Color.BLACK);
+      pieces[1][4].setColor(Color.BLACK);
+      pieces[4][1].setColor(Color.BLACK);
+      pieces[3][2].setColor(Color.BLACK);
+      pieces[3][3].setColor(Color.BLACK);
+      pieces[3][4].setColor(Color.BLACK);
+      pieces[4][5].setColor(Color.BLACK);
 
    }
 }
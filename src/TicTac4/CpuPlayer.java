@@ -0,0 +1,180 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the Engine for BigBoard, on a background thread so the window never freezes. Every method here is called from
+ * the event dispatch thread, and the chosen move is handed back on it too.
+ * <p>
+ * Each move is given a deadline by the TimeManager. While the person is thinking, the CPU ponders: it guesses their
+ * reply (the one its last search expected) and starts searching the game after that reply, with no deadline. If the
+ * guess was right, the time spent pondering counts towards the move's budget, so the CPU answers sooner, almost
+ * straight away if the person took longer than the budget. If not, it is cancelled and a new search starts from one
+ * move ahead. The pondering's best line and depth are not carried over, since they are for a game that was never
+ * reached. Its transposition table entries are kept, but are only useful where the two games lead to the same
+ * positions, which is seldom.
+ */
+final class CpuPlayer
+{
+   private static final long HIT_FLOOR_NANOS = 50_000_000L; // Least time left to a search after a right guess
+
+   private final Engine engine;
+   private final TimeManager time;
+   private final ExecutorService executor; // One thread, so searches never overlap
+
+   private final StateArena arena = new StateArena(1); // Used to make the guessed reply
+   private final int scratch = arena.allocate();
+
+   private int predicted = Engine.NO_MOVE; // The reply the last search expected from the person
+   private Future<int[]> pondering; // The search of the game after the predicted reply, or null
+   private AtomicLong ponderDeadline; // The pondering search's deadline, set once the guess turns out right
+   private int ponderMove = Engine.NO_MOVE; // The reply that pondering is based on
+   private long ponderStart; // System.nanoTime when pondering started
+
+   /**
+    * @param time    Decides how long the CPU may think about each move
+    * @param network Scores positions for the Engine, or null to use Engine.evaluate
+    */
+   CpuPlayer(TimeManager time, NTupleNetwork network)
+   {
+      this.time = time;
+      engine = new Engine(Integer.MAX_VALUE, 20, network);
+      executor = Executors.newSingleThreadExecutor(r -> {
+         Thread thread = new Thread(r, "TicTac4 CPU");
+         thread.setDaemon(true); // Don't keep the program open after the window closes
+         return thread;
+      });
+   }
+
+   /**
+    * Finds the CPU's move, reusing the pondering if the person made the predicted move.
+    *
+    * @param position The game, saved by StateArena.save, with the CPU to move
+    * @param lastMove The move the person just made
+    * @param onMove   Given the CPU's move, on the event dispatch thread
+    */
+   void play(long[] position, int lastMove, IntConsumer onMove)
+   {
+      arena.load(scratch, position);
+      long now = System.nanoTime();
+      long budget = time.budget(arena, scratch);
+      long deadline = now + budget;
+
+      Future<int[]> search;
+      if (pondering != null && lastMove == ponderMove)
+      {
+         // Predicted right, this search is already on the game being played. Count the time it has had against the
+         // budget, so a long think by the person means a quick reply, but leave it a moment to finish a depth.
+         search = pondering;
+         ponderDeadline.set(Math.max(now + HIT_FLOOR_NANOS, ponderStart + budget));
+      } else
+      {
+         stopPondering();
+         long[] copy = position.clone();
+         search = executor.submit(() -> engine.search(copy, new AtomicLong(deadline)));
+      }
+      pondering = null;
+      ponderDeadline = null;
+
+      // Runs after the search, the executor only has one thread
+      long[] game = position.clone();
+      executor.execute(() -> {
+         try
+         {
+            int[] result = search.get();
+            SwingUtilities.invokeLater(() -> {
+               predicted = result[1];
+               onMove.accept(result[0]);
+            });
+         } catch (CancellationException e)
+         {
+            // Cancelled, the game was closed or reset
+         } catch (InterruptedException e)
+         {
+            Thread.currentThread().interrupt();
+         } catch (ExecutionException e)
+         {
+            // A bug in the search, don't leave the person waiting forever for a move that won't come
+            System.err.println("The CPU's search failed, playing the first legal move instead");
+            e.getCause().printStackTrace();
+            SwingUtilities.invokeLater(() -> {
+               predicted = Engine.NO_MOVE;
+               onMove.accept(firstLegalMove(game));
+            });
+         }
+      });
+   }
+
+   /**
+    * @param position A game that isn't over, saved by StateArena.save
+    * @return A move that can be played in it
+    */
+   private int firstLegalMove(long[] position)
+   {
+      arena.load(scratch, position);
+      int move = 0;
+      while (! arena.canPlay(scratch, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS))
+      {
+         move++;
+      }
+      return move;
+   }
+
+   /**
+    * Starts searching the game after the person's predicted reply, called once the CPU's move is on the board.
+    *
+    * @param position The game, saved by StateArena.save, with the person to move
+    */
+   void ponder(long[] position)
+   {
+      stopPondering();
+      arena.load(scratch, position);
+      int board = predicted / Bitboard.COLUMNS;
+      int column = predicted % Bitboard.COLUMNS;
+      if (predicted == Engine.NO_MOVE || ! arena.canPlay(scratch, board, column))
+         return;
+      if (arena.play(scratch, board, column) != StateArena.IN_PROGRESS)
+         return; // Nothing to search if the reply ends the game
+
+      long[] guessed = new long[StateArena.STRIDE];
+      arena.save(scratch, guessed);
+      AtomicLong deadline = new AtomicLong(Engine.NO_DEADLINE);
+      ponderMove = predicted;
+      ponderDeadline = deadline;
+      ponderStart = System.nanoTime();
+      pondering = executor.submit(() -> engine.search(guessed, deadline));
+   }
+
+   /**
+    * Cancels any pondering, for example when the game is over.
+    */
+   void stopPondering()
+   {
+      if (pondering != null)
+      {
+         pondering.cancel(true); // Interrupts the search, which then stops on its own
+         pondering = null;
+         ponderDeadline = null;
+      }
+      ponderMove = Engine.NO_MOVE;
+   }
+}
@@ -0,0 +1,482 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The computer player's search. It uses iterative deepening: alpha-beta to 1 move ahead, then 2, and so on until the
+ * deadline, each time trying the previous depth's best line first and starting with a narrow window around its score.
+ * The best move of the deepest finished depth is returned, so stopping at any point still gives a sound move.
+ * <p>
+ * The search works directly on games in its own StateArena, one handle per move deep. Positions it has already
+ * searched are kept in a transposition table that lives as long as the Engine, so a later search of a related position
+ * can reuse them.
+ * <p>
+ * A move is one int: board * 7 + column, where board is row * 3 + column in the Tic-Tac-Toe grid. The deadline and
+ * the thread's interrupt flag are checked every few dozen positions, which is well under a millisecond.
+ * <p>
+ * Positions at the end of the search are scored by evaluate, or by an NTupleNetwork if one is given. The network's
+ * sum is kept for each ply and updated with every move, so scoring a position only looks at the patterns that changed.
+ */
+final class Engine
+{
+   static final int NO_MOVE = - 1;
+   static final int MOVES = Bitboard.BOARDS * Bitboard.COLUMNS; // Every possible move, legal or not
+   static final long NO_DEADLINE = Long.MAX_VALUE; // Search until interrupted or out of depth
+
+   static final int WIN = 1_000_000; // Score of a won game, less one per move it takes
+   private static final int INFINITY = WIN + 1;
+   private static final int MAX_PLY = 64;
+   private static final int ASPIRATION = 60; // Half the width of the first window tried at each depth
+   private static final int CHECK_INTERVAL = 63; // Check the clock when (nodes & CHECK_INTERVAL) == 0
+
+   // Static evaluation weights
+   private static final int[] LINE_SCORES = {0, 40, 400}; // A live Tic-Tac-Toe line, by Connect-4 games already won
+   private static final int THREAT_SCORE = 3; // A winning cell in a Connect-4 game, per live line through it
+   private static final int NETWORK_SCALE = 1000; // A network score of 1 (sure to win) is worth this much
+
+   // Transposition table entry flags
+   private static final int EXACT = 0;
+   private static final int LOWER = 1;
+   private static final int UPPER = 2;
+
+   private static final int[] ORDER = moveOrder(); // Every move, center columns and center boards first
+
+   // Random numbers for hashing: one per color, board and cell, plus one for the side to move
+   private static final long[] ZOBRIST = zobrist();
+   private static final long ZOBRIST_YELLOW_TO_MOVE = ZOBRIST[ZOBRIST.length - 1];
+
+   private final long[] ttKeys;
+   private final long[] ttEntries; // Score, depth, flag and best move packed into a long
+   private final int ttMask;
+
+   private final StateArena arena = new StateArena(MAX_PLY + 1);
+   private final int[] stack = new int[MAX_PLY + 1]; // The game at each ply of the current line
+   private final int[][] moves = new int[MAX_PLY][MOVES]; // Move list at each ply, so nothing is allocated while searching
+
+   // The best line found at each ply during the current depth, and the finished one from the depth before
+   private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+   private final int[] pvLength = new int[MAX_PLY + 1];
+   private final int[] previousPv = new int[MAX_PLY];
+   private int previousPvLength;
+
+   private final NTupleNetwork network; // Null to score with evaluate
+   private final float[] sums = new float[MAX_PLY + 1]; // The network's sum for the game at each ply
+
+   private final int maxDepth;
+   private AtomicLong deadline; // System.nanoTime value to stop at, can be moved while searching
+   private boolean stopped;
+   private long nodes;
+   private int completedDepth;
+   private int score;
+
+   /**
+    * @param maxDepth The most moves ahead to look, even if there is time left
+    * @param ttBits   The transposition table holds 2^ttBits positions
+    */
+   Engine(int maxDepth, int ttBits)
+   {
+      this(maxDepth, ttBits, null);
+   }
+
+   /**
+    * @param maxDepth The most moves ahead to look, even if there is time left
+    * @param ttBits   The transposition table holds 2^ttBits positions
+    * @param network  Scores positions instead of evaluate, or null. Its weights must not change while searching.
+    */
+   Engine(int maxDepth, int ttBits, NTupleNetwork network)
+   {
+      this.network = network;
+      this.maxDepth = Math.min(maxDepth, MAX_PLY - 1);
+      ttKeys = new long[1 << ttBits];
+      ttEntries = new long[1 << ttBits];
+      ttMask = (1 << ttBits) - 1;
+      for (int i = 0; i < stack.length; i++)
+      {
+         stack[i] = arena.allocate();
+      }
+   }
+
+   /**
+    * Searches for the best move until the deadline, the maximum depth, or the thread being interrupted, whichever
+    * comes first.
+    *
+    * @param position A game saved by StateArena.save, must not be over
+    * @param deadline The System.nanoTime value to stop at, or NO_DEADLINE. Another thread may change it while the
+    *                 search runs, for example to put a limit on pondering that turned out to be useful.
+    * @return The best move, then the reply the search expects from the other player (or NO_MOVE)
+    */
+   int[] search(long[] position, AtomicLong deadline)
+   {
+      this.deadline = deadline;
+      stopped = false;
+      nodes = 0;
+      completedDepth = 0;
+      previousPvLength = 0;
+      int root = stack[0];
+      arena.load(root, position);
+      long hash = hash(arena, root);
+      if (network != null)
+         sums[0] = network.sum(arena, root);
+
+      int bestMove = NO_MOVE;
+      int reply = NO_MOVE;
+      score = 0;
+      for (int depth = 1; depth <= maxDepth; depth++)
+      {
+         int alpha = - INFINITY;
+         int beta = INFINITY;
+         if (depth > 2 && Math.abs(score) < WIN - MAX_PLY)
+         {
+            alpha = score - ASPIRATION;
+            beta = score + ASPIRATION;
+         }
+
+         int result = negamax(0, depth, alpha, beta, hash, true);
+         if (! stopped && (result <= alpha || result >= beta))
+            result = negamax(0, depth, - INFINITY, INFINITY, hash, true); // Outside of the window, search again
+         if (stopped)
+            break; // Keep the last finished depth's move
+
+         score = result;
+         completedDepth = depth;
+         previousPvLength = pvLength[0];
+         System.arraycopy(pvTable[0], 0, previousPv, 0, previousPvLength);
+         bestMove = previousPv[0];
+         reply = previousPvLength > 1 ? previousPv[1] : NO_MOVE;
+
+         if (Math.abs(score) >= WIN - MAX_PLY)
+            break; // A forced win or loss was found, looking deeper won't change it
+      }
+
+      if (bestMove == NO_MOVE)
+      {
+         // Stopped before even one move ahead was finished, play the first legal move
+         generate(root, moves[0], NO_MOVE, NO_MOVE);
+         bestMove = moves[0][0];
+      }
+      return new int[]{bestMove, reply};
+   }
+
+   /**
+    * @return The number of positions visited by the last search
+    */
+   long nodes()
+   {
+      return nodes;
+   }
+
+   /**
+    * @return The score of the last search's move, from the point of view of the side that was to move
+    */
+   int score()
+   {
+      return score;
+   }
+
+   /**
+    * @return How many moves ahead the last search finished looking
+    */
+   int completedDepth()
+   {
+      return completedDepth;
+   }
+
+   /**
+    * Alpha-beta search, scores are from the point of view of the side to move. Also fills pvTable[ply] with the best
+    * line from here.
+    *
+    * @param onPv True while following the previous depth's best line, so its next move is tried first
+    */
+   private int negamax(int ply, int depth, int alpha, int beta, long hash, boolean onPv)
+   {
+      pvLength[ply] = 0;
+      int handle = stack[ply];
+      int result = arena.result(handle);
+      if (result != StateArena.IN_PROGRESS)
+         return result == StateArena.DRAW ? 0 : - (WIN - ply); // The side that just moved has won
+
+      if ((++ nodes & CHECK_INTERVAL) == 0 && (Thread.currentThread().isInterrupted() || pastDeadline()))
+         stopped = true;
+      if (stopped)
+         return 0;
+
+      if (depth == 0 || ply == MAX_PLY)
+         return network == null ? evaluate(arena, handle) : networkScore(ply, handle);
+
+      // Use what is known about this position from earlier searches, but never cut the root short
+      int index = (int) hash & ttMask;
+      int ttMove = NO_MOVE;
+      if (ttKeys[index] == hash)
+      {
+         long entry = ttEntries[index];
+         ttMove = entryMove(entry);
+         if (ply > 0 && entryDepth(entry) >= depth)
+         {
+            int score = fromTable(entryScore(entry), ply);
+            int flag = entryFlag(entry);
+            if (flag == EXACT || flag == LOWER && score >= beta || flag == UPPER && score <= alpha)
+               return score;
+         }
+      }
+
+      int pvMove = onPv && ply < previousPvLength ? previousPv[ply] : NO_MOVE;
+      int originalAlpha = alpha;
+      int best = - INFINITY;
+      int bestMove = NO_MOVE;
+      int[] list = moves[ply];
+      int count = generate(handle, list, pvMove, ttMove);
+      for (int i = 0; i < count; i++)
+      {
+         int move = list[i];
+         boolean childOnPv = onPv && move == pvMove;
+         int score = - negamax(ply + 1, depth - 1, - beta, - alpha, play(ply, move, hash), childOnPv);
+         if (stopped)
+            return 0;
+         if (score > best)
+         {
+            best = score;
+            bestMove = move;
+         }
+         if (score > alpha)
+         {
+            alpha = score;
+
+            // This move is the best line so far, followed by the best line from the child
+            pvTable[ply][0] = move;
+            System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+            pvLength[ply] = pvLength[ply + 1] + 1;
+         }
+         if (alpha >= beta)
+            break;
+      }
+
+      int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+      store(hash, depth, best, flag, bestMove, ply);
+      return best;
+   }
+
+   private boolean pastDeadline()
+   {
+      long stopAt = deadline.get();
+      return stopAt != NO_DEADLINE && System.nanoTime() - stopAt >= 0;
+   }
+
+   /**
+    * Copies the game at the given ply to the next one and makes the move there.
+    *
+    * @return The hash of the new game
+    */
+   private long play(int ply, int move, long hash)
+   {
+      int handle = stack[ply];
+      int child = stack[ply + 1];
+      int board = move / Bitboard.COLUMNS;
+      int column = move % Bitboard.COLUMNS;
+      int cell = column * Bitboard.HEIGHT + arena.height(handle, board, column);
+      boolean red = arena.isRedToMove(handle);
+      arena.copy(handle, child);
+      arena.play(child, board, column);
+      if (network != null)
+         sums[ply + 1] = sums[ply] + network.moveDelta(arena, handle, child, board, column);
+      return hash ^ ZOBRIST[zobristIndex(red, board, cell)] ^ ZOBRIST_YELLOW_TO_MOVE;
+   }
+
+   /**
+    * Fills the list with every legal move, the given moves first.
+    *
+    * @param first  Tried before anything else, usually from the previous depth's best line (or NO_MOVE)
+    * @param second Tried next, usually from the transposition table (or NO_MOVE)
+    * @return The number of moves
+    */
+   private int generate(int handle, int[] list, int first, int second)
+   {
+      int count = 0;
+      // Checked, a different position could have left these moves in the tables
+      if (first != NO_MOVE && arena.canPlay(handle, first / Bitboard.COLUMNS, first % Bitboard.COLUMNS))
+         list[count++] = first;
+      if (second != NO_MOVE && second != first
+              && arena.canPlay(handle, second / Bitboard.COLUMNS, second % Bitboard.COLUMNS))
+         list[count++] = second;
+      int resolved = arena.resolvedMask(handle);
+      for (int move : ORDER)
+      {
+         int board = move / Bitboard.COLUMNS;
+         if (move != first && move != second && (resolved & (1 << board)) == 0
+                 && arena.height(handle, board, move % Bitboard.COLUMNS) < Bitboard.ROWS)
+            list[count++] = move;
+      }
+      return count;
+   }
+
+   private void store(long hash, int depth, int score, int flag, int move, int ply)
+   {
+      int index = (int) hash & ttMask;
+      // Keep the deeper entry when two positions share a slot, unless it is the same position
+      if (ttKeys[index] != hash && ttKeys[index] != 0 && entryDepth(ttEntries[index]) > depth)
+         return;
+      ttKeys[index] = hash;
+      ttEntries[index] = (long) toTable(score, ply) << 32 | (long) depth << 16 | (long) flag << 8 | (move + 1);
+   }
+
+   // Wins are stored as distance from the stored position, not from the root, so they stay right when reused
+   private static int toTable(int score, int ply)
+   {
+      return score > WIN - MAX_PLY ? score + ply : score < - WIN + MAX_PLY ? score - ply : score;
+   }
+
+   private static int fromTable(int score, int ply)
+   {
+      return score > WIN - MAX_PLY ? score - ply : score < - WIN + MAX_PLY ? score + ply : score;
+   }
+
+   private static int entryScore(long entry)
+   {
+      return (int) (entry >> 32);
+   }
+
+   private static int entryDepth(long entry)
+   {
+      return (int) (entry >>> 16) & 0xFF;
+   }
+
+   private static int entryFlag(long entry)
+   {
+      return (int) (entry >>> 8) & 0xFF;
+   }
+
+   private static int entryMove(long entry)
+   {
+      return (int) (entry & 0xFF) - 1;
+   }
+
+   /**
+    * Scores a game that is still going, from the point of view of the side to move. Every Tic-Tac-Toe line that a
+    * color can still complete is worth more for each Connect-4 game already won in it, and each winning cell in an
+    * unfinished Connect-4 game is worth more for each such line going through that game.
+    *
+    * @param arena  The arena holding the game
+    * @param handle The game
+    * @return The score, positive if the side to move is ahead
+    */
+   static int evaluate(StateArena arena, int handle)
+   {
+      int redMask = arena.redMask(handle);
+      int yellowMask = arena.yellowMask(handle);
+      int tiedMask = arena.tiedMask(handle);
+      int resolved = redMask | yellowMask | tiedMask;
+
+      int score = 0;
+      for (int line : Bitboard.META_LINES)
+      {
+         if ((line & (yellowMask | tiedMask)) == 0)
+            score += LINE_SCORES[Integer.bitCount(line & redMask)];
+         if ((line & (redMask | tiedMask)) == 0)
+            score -= LINE_SCORES[Integer.bitCount(line & yellowMask)];
+      }
+
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         if ((resolved & (1 << b)) != 0)
+            continue;
+
+         // Count the lines through this Connect-4 game that each color can still complete
+         int redLines = 0;
+         int yellowLines = 0;
+         for (int line : Bitboard.META_LINES)
+         {
+            if ((line & (1 << b)) == 0)
+               continue;
+            if ((line & (yellowMask | tiedMask)) == 0)
+               redLines++;
+            if ((line & (redMask | tiedMask)) == 0)
+               yellowLines++;
+         }
+
+         long red = arena.red(handle, b);
+         long yellow = arena.yellow(handle, b);
+         long occupied = red | yellow;
+         score += THREAT_SCORE * redLines * Long.bitCount(Bitboard.threats(red, occupied));
+         score -= THREAT_SCORE * yellowLines * Long.bitCount(Bitboard.threats(yellow, occupied));
+      }
+
+      return arena.isRedToMove(handle) ? score : - score;
+   }
+
+   /**
+    * Scores a game that is still going with the network, from the point of view of the side to move.
+    */
+   private int networkScore(int ply, int handle)
+   {
+      int score = Math.round(NTupleNetwork.value(sums[ply]) * NETWORK_SCALE);
+      return arena.isRedToMove(handle) ? score : - score;
+   }
+
+   /**
+    * Hashes a whole game from scratch, searches keep the hash up to date one move at a time after this.
+    *
+    * @param arena  The arena holding the game
+    * @param handle The game
+    * @return The hash
+    */
+   static long hash(StateArena arena, int handle)
+   {
+      long hash = arena.isRedToMove(handle) ? 0 : ZOBRIST_YELLOW_TO_MOVE;
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         for (long red = arena.red(handle, b); red != 0; red &= red - 1)
+         {
+            hash ^= ZOBRIST[zobristIndex(true, b, Long.numberOfTrailingZeros(red))];
+         }
+         for (long yellow = arena.yellow(handle, b); yellow != 0; yellow &= yellow - 1)
+         {
+            hash ^= ZOBRIST[zobristIndex(false, b, Long.numberOfTrailingZeros(yellow))];
+         }
+      }
+      return hash;
+   }
+
+   private static int zobristIndex(boolean red, int board, int cell)
+   {
+      return ((red ? 0 : Bitboard.BOARDS) + board) * Long.SIZE + cell;
+   }
+
+   private static long[] zobrist()
+   {
+      SplittableRandom random = new SplittableRandom(4);
+      long[] keys = new long[2 * Bitboard.BOARDS * Long.SIZE + 1];
+      for (int i = 0; i < keys.length; i++)
+      {
+         keys[i] = random.nextLong();
+      }
+      return keys;
+   }
+
+   private static int[] moveOrder()
+   {
+      int[] columns = {3, 2, 4, 1, 5, 0, 6};
+      int[] boards = {4, 0, 2, 6, 8, 1, 3, 5, 7}; // Center, then corners, then edges: by how many lines go through
+      int[] order = new int[MOVES];
+      int i = 0;
+      for (int column : columns)
+      {
+         for (int board : boards)
+         {
+            order[i++] = board * Bitboard.COLUMNS + column;
+         }
+      }
+      return order;
+   }
+}
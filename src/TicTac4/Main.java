@@ -12,6 +12,12 @@
 
 package TicTac4;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 /**
  * This project was created for fun, and a challenge related to coding a set of JPanels in a grid layout within one
  * JFrame. Another challenge was cleanly coding the logic used to house multiple games in one.
@@ -21,11 +27,111 @@ package TicTac4;
  * wins, a red 'X' is displayed, and if yellow wins then a yellow 'O' is displayed. With these wins, the players then
  * try to win the Tic-Tac-Toe game. If a Connect-4 game is tied, it will display as so in the Connect-4 box. If the
  * Tic-Tac-Toe game is tied, a dialog will display as so.
+ * <p>
+ * Run with the argument -cpu to play red against the computer, which plays yellow, optionally followed by a weights
+ * file made by -train for it to score positions with. Run with -selfplay, the number of games and a file name to have
+ * the computer play itself with no window and save the games for training (add -deflate to compress the file). Run
+ * with -train, the number of games and a weights file to teach an NTupleNetwork by self-play, starting from the
+ * weights in the file if it already exists. Run with -cluster, the number of worker processes, the number of games
+ * and a file name to do the same as -selfplay spread over several JVMs (-worker is how those JVMs are started). Run
+ * with -analyze and a list of moves, each a board and a column like 4:3, to print the SubBoardAnalyzer outlook of the
+ * game after those moves.
  */
 class Main
 {
-   public static void main(String[] args)
+   public static void main(String[] args) throws IOException, InterruptedException
+   {
+      if (args.length > 0 && args[0].equals("-cpu"))
+         new BigBoard(new CpuPlayer(new TimeManager(1000, 3000), args.length > 1 ? network(args[1]) : null));
+      else if (args.length > 0 && args[0].equals("-selfplay"))
+      {
+         expect(args, 3, 4, "-selfplay <games> <file> [-deflate]");
+         SelfPlay.run(Integer.parseInt(args[1]), Paths.get(args[2]), args.length > 3 && args[3].equals("-deflate"));
+      } else if (args.length > 0 && args[0].equals("-cluster"))
+      {
+         expect(args, 4, 5, "-cluster <workers> <games> <file> [-deflate]");
+         SelfPlayCluster.run(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Paths.get(args[3]),
+                 args.length > 4 && args[4].equals("-deflate"));
+      } else if (args.length > 0 && args[0].equals("-worker"))
+      {
+         expect(args, 3, 3, "-worker <port> <seed>");
+         SelfPlayCluster.work(Integer.parseInt(args[1]), Long.parseLong(args[2]));
+      } else if (args.length > 0 && args[0].equals("-analyze"))
+      {
+         try
+         {
+            SubBoardAnalyzer.run(moves(Arrays.copyOfRange(args, 1, args.length)));
+         } catch (IllegalArgumentException e)
+         {
+            System.err.println(e.getMessage());
+            usage("-analyze <board:column>...", 1);
+         }
+      } else if (args.length > 0 && args[0].equals("-train"))
+      {
+         expect(args, 3, 3, "-train <games> <weights>");
+         Path file = Paths.get(args[2]);
+         NTupleNetwork network = Files.exists(file) ? network(args[2]) : new NTupleNetwork();
+         NTupleTrainer.run(network, Integer.parseInt(args[1]));
+         network.save(file);
+      } else if (args.length > 0 && args[0].startsWith("-"))
+      {
+         System.err.println("Unknown mode " + args[0] + ", expected -cpu, -selfplay, -cluster, -analyze or -train");
+         System.exit(2);
+      } else
+         new BigBoard();
+   }
+
+   /**
+    * Stops with a usage line unless a mode was given a number of arguments it takes, so a mistyped command never falls
+    * through to opening a game window (unknown modes are turned away in main)
+    *
+    * @param args  The arguments, the mode first
+    * @param least The fewest arguments the mode takes, counting itself
+    * @param most  The most arguments the mode takes, counting itself
+    * @param usage How to run the mode
+    */
+   private static void expect(String[] args, int least, int most, String usage)
+   {
+      if (args.length < least || args.length > most)
+         usage(usage, 2);
+   }
+
+   /**
+    * Prints how to run a mode and exits
+    *
+    * @param usage  How to run the mode
+    * @param status The exit status: 2 for the wrong number of arguments, 1 for arguments that can't be used
+    */
+   private static void usage(String usage, int status)
+   {
+      System.err.println("Usage: java -jar TicTac4.jar " + usage);
+      System.exit(status);
+   }
+
+   /**
+    * Reads moves written as board:column, boards by row * 3 + column in the Tic-Tac-Toe grid
+    *
+    * @throws IllegalArgumentException If a move isn't written that way, or is off the grid
+    */
+   private static int[] moves(String[] args)
+   {
+      int[] moves = new int[args.length];
+      for (int i = 0; i < args.length; i++)
+      {
+         // Boards and columns are single digits, anything else can't be a move
+         int board = args[i].matches("[0-9]:[0-9]") ? args[i].charAt(0) - '0' : - 1;
+         int column = board >= 0 ? args[i].charAt(2) - '0' : - 1;
+         if (board < 0 || board >= Bitboard.BOARDS || column < 0 || column >= Bitboard.COLUMNS)
+            throw new IllegalArgumentException("Moves are written board:column, like 4:3, not " + args[i]);
+         moves[i] = board * Bitboard.COLUMNS + column;
+      }
+      return moves;
+   }
+
+   private static NTupleNetwork network(String file) throws IOException
    {
-      new BigBoard();
+      NTupleNetwork network = new NTupleNetwork();
+      network.load(Paths.get(file));
+      return network;
    }
 }
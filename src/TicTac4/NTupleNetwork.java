@@ -0,0 +1,386 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An evaluator that scores a game by looking up weights for small patterns, instead of working anything out. The
+ * patterns are every line of 4 cells in each Connect-4 game (69 of them, 81 ways to fill each) and every Tic-Tac-Toe
+ * line (8 of them, 64 ways to fill each with nothing, red, yellow or a tie). The score is the sum of the weights, passed
+ * through tanh, from red's point of view.
+ * <p>
+ * Patterns that are the same after a flip share their weights: a Connect-4 line and its mirror image, Connect-4 games
+ * in the same kind of spot in the grid (the center, a corner or an edge), and Tic-Tac-Toe lines of the same kind (an
+ * outside row or column, the middle row or column, or a diagonal).
+ * <p>
+ * The weights are learned by NTupleTrainer. Since a move only changes the patterns through one cell, moveDelta works
+ * out the change in the sum from those few patterns, so a search can keep the sum up to date as it goes.
+ */
+final class NTupleNetwork
+{
+   private static final int[] POW3 = {1, 3, 9, 27};
+   private static final int[] POW4 = {1, 4, 16};
+   private static final int WINDOW_STATES = 81; // 3^4: empty, red or yellow in each of 4 cells
+   private static final int LINE_STATES = 64; // 4^3: unfinished, red, yellow or tied in each of 3 games
+
+   // Every line of 4 cells in a Connect-4 game, as bit indexes (see Bitboard), and each one's weight table
+   private static final int[][] WINDOWS;
+   private static final int[] CELLS; // WINDOWS in one array, 4 cells each, since they are read for every window
+   private static final int[] WINDOW_CLASS;
+   private static final int WINDOW_CLASSES;
+
+   // For each cell, the windows through it, and where in each window the cell is
+   private static final int[][] CELL_WINDOWS = new int[Long.SIZE][];
+   private static final int[][] CELL_POSITIONS = new int[Long.SIZE][];
+
+   // The kind of spot each Connect-4 game is in (center, corner, edge), and the kind of each Tic-Tac-Toe line
+   private static final int[] BOARD_CLASS = {1, 2, 1, 2, 0, 2, 1, 2, 1};
+   private static final int[] LINE_CLASS = {0, 1, 0, 0, 1, 0, 2, 2};
+   private static final int[][] LINE_BOARDS = lineBoards(); // The games of each line, in order
+
+   private static final int LINE_OFFSET; // Where the Tic-Tac-Toe line weights start
+   private static final int SIDE_OFFSET; // Where the weights for red's turn and yellow's turn are
+   private static final int LINES_START; // Where the Tic-Tac-Toe lines are in a list made by features
+   static final int FEATURES; // Weights used by one game
+
+   static
+   {
+      List<int[]> windows = new ArrayList<>();
+      // {rows, columns} between cells: across, up the column, diagonally up and diagonally down
+      int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {- 1, 1}};
+      for (int[] d : directions)
+      {
+         for (int row = 0; row < Bitboard.ROWS; row++)
+         {
+            for (int column = 0; column < Bitboard.COLUMNS; column++)
+            {
+               int endRow = row + 3 * d[0];
+               int endColumn = column + 3 * d[1];
+               if (endRow < 0 || endRow >= Bitboard.ROWS || endColumn >= Bitboard.COLUMNS)
+                  continue;
+               int[] cells = new int[4];
+               for (int k = 0; k < 4; k++)
+               {
+                  cells[k] = (column + k * d[1]) * Bitboard.HEIGHT + row + k * d[0];
+               }
+               windows.add(cells);
+            }
+         }
+      }
+
+      // Give each window the same weights as its mirror image, with the cells in mirrored order
+      WINDOWS = windows.toArray(new int[0][]);
+      WINDOW_CLASS = new int[WINDOWS.length];
+      int classes = 0;
+      for (int w = 0; w < WINDOWS.length; w++)
+      {
+         WINDOW_CLASS[w] = - 1;
+         int[] mirrored = new int[4];
+         for (int k = 0; k < 4; k++)
+         {
+            mirrored[k] = mirror(WINDOWS[w][k]);
+         }
+         for (int v = 0; v < w; v++)
+         {
+            if (sameCells(WINDOWS[v], mirrored))
+            {
+               WINDOW_CLASS[w] = WINDOW_CLASS[v];
+               for (int k = 0; k < 4; k++)
+               {
+                  WINDOWS[w][k] = mirror(WINDOWS[v][k]);
+               }
+            }
+         }
+         if (WINDOW_CLASS[w] < 0)
+            WINDOW_CLASS[w] = classes++;
+      }
+      WINDOW_CLASSES = classes;
+      CELLS = Arrays.stream(WINDOWS).flatMapToInt(Arrays::stream).toArray();
+
+      for (int cell = 0; cell < Long.SIZE; cell++)
+      {
+         List<int[]> through = new ArrayList<>();
+         for (int w = 0; w < WINDOWS.length; w++)
+         {
+            for (int k = 0; k < 4; k++)
+            {
+               if (WINDOWS[w][k] == cell)
+                  through.add(new int[]{w, k});
+            }
+         }
+         CELL_WINDOWS[cell] = through.stream().mapToInt(t -> t[0]).toArray();
+         CELL_POSITIONS[cell] = through.stream().mapToInt(t -> t[1]).toArray();
+      }
+
+      LINE_OFFSET = 3 * WINDOW_CLASSES * WINDOW_STATES;
+      SIDE_OFFSET = LINE_OFFSET + 3 * LINE_STATES;
+      LINES_START = Bitboard.BOARDS * WINDOWS.length;
+      FEATURES = LINES_START + LINE_BOARDS.length + 1;
+   }
+
+   final float[] weights = new float[SIDE_OFFSET + 2];
+
+   /**
+    * Finds the weight of every pattern in a game. Each pattern always has the same place in the list, so a move can
+    * update the list with move instead of finding them all again.
+    *
+    * @param arena    The arena holding the game
+    * @param handle   The game
+    * @param features Filled with FEATURES indexes into weights
+    */
+   void features(StateArena arena, int handle, int[] features)
+   {
+      int n = 0;
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         long red = arena.red(handle, b);
+         long yellow = arena.yellow(handle, b);
+         int table = BOARD_CLASS[b] * WINDOW_CLASSES;
+         for (int w = 0; w < WINDOWS.length; w++)
+         {
+            features[n++] = (table + WINDOW_CLASS[w]) * WINDOW_STATES + windowIndex(w, red, yellow);
+         }
+      }
+      for (int l = 0; l < LINE_BOARDS.length; l++)
+      {
+         features[n++] = LINE_OFFSET + LINE_CLASS[l] * LINE_STATES + lineIndex(l, arena, handle);
+      }
+      features[n] = SIDE_OFFSET + (arena.isRedToMove(handle) ? 0 : 1);
+   }
+
+   /**
+    * Updates a list made by features for a move, changing only the patterns through the cell that was filled, and the
+    * Tic-Tac-Toe lines if the move finished a Connect-4 game.
+    *
+    * @param features The list for the game before the move, changed to the game after it
+    * @param arena    The arena holding both games
+    * @param parent   The game before the move
+    * @param child    The game after the move
+    * @param board    The Connect-4 game the move was in
+    * @param column   The column the move was in
+    */
+   void move(int[] features, StateArena arena, int parent, int child, int board, int column)
+   {
+      int cell = column * Bitboard.HEIGHT + arena.height(parent, board, column);
+      int color = arena.isRedToMove(parent) ? 1 : 2;
+      int[] windows = CELL_WINDOWS[cell];
+      int[] positions = CELL_POSITIONS[cell];
+      for (int i = 0; i < windows.length; i++)
+      {
+         features[board * WINDOWS.length + windows[i]] += color * POW3[positions[i]];
+      }
+
+      if (arena.resolvedMask(child) != arena.resolvedMask(parent))
+      {
+         for (int l = 0; l < LINE_BOARDS.length; l++)
+         {
+            if ((Bitboard.META_LINES[l] & (1 << board)) != 0)
+               features[LINES_START + l] = LINE_OFFSET + LINE_CLASS[l] * LINE_STATES + lineIndex(l, arena, child);
+         }
+      }
+
+      features[FEATURES - 1] = SIDE_OFFSET + (arena.isRedToMove(child) ? 0 : 1);
+   }
+
+   /**
+    * @param features A list made by features
+    * @return The sum of the weights in the list
+    */
+   float sum(int[] features)
+   {
+      float sum = 0;
+      for (int feature : features)
+      {
+         sum += weights[feature];
+      }
+      return sum;
+   }
+
+   /**
+    * Adds up the weights of every pattern in a game, from scratch.
+    *
+    * @param arena  The arena holding the game
+    * @param handle The game
+    * @return The sum, pass it to value for the score
+    */
+   float sum(StateArena arena, int handle)
+   {
+      float sum = 0;
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         long red = arena.red(handle, b);
+         long yellow = arena.yellow(handle, b);
+         int table = BOARD_CLASS[b] * WINDOW_CLASSES;
+         for (int w = 0; w < WINDOWS.length; w++)
+         {
+            sum += weights[(table + WINDOW_CLASS[w]) * WINDOW_STATES + windowIndex(w, red, yellow)];
+         }
+      }
+      for (int l = 0; l < LINE_BOARDS.length; l++)
+      {
+         sum += weights[LINE_OFFSET + LINE_CLASS[l] * LINE_STATES + lineIndex(l, arena, handle)];
+      }
+      return sum + weights[SIDE_OFFSET + (arena.isRedToMove(handle) ? 0 : 1)];
+   }
+
+   /**
+    * Works out how much a move changes the sum, looking only at the patterns through the cell that was filled, and at
+    * the Tic-Tac-Toe lines if the move finished a Connect-4 game.
+    *
+    * @param arena  The arena holding both games
+    * @param parent The game before the move
+    * @param child  The game after the move
+    * @param board  The Connect-4 game the move was in
+    * @param column The column the move was in
+    * @return The sum after the move, less the sum before it
+    */
+   float moveDelta(StateArena arena, int parent, int child, int board, int column)
+   {
+      long red = arena.red(parent, board);
+      long yellow = arena.yellow(parent, board);
+      boolean redMoved = arena.isRedToMove(parent);
+      int cell = column * Bitboard.HEIGHT + arena.height(parent, board, column);
+      int color = redMoved ? 1 : 2;
+      int table = BOARD_CLASS[board] * WINDOW_CLASSES;
+
+      float delta = 0;
+      int[] windows = CELL_WINDOWS[cell];
+      int[] positions = CELL_POSITIONS[cell];
+      for (int i = 0; i < windows.length; i++)
+      {
+         int start = (table + WINDOW_CLASS[windows[i]]) * WINDOW_STATES;
+         int before = windowIndex(windows[i], red, yellow);
+         delta += weights[start + before + color * POW3[positions[i]]] - weights[start + before];
+      }
+
+      if (arena.resolvedMask(child) != arena.resolvedMask(parent))
+      {
+         for (int l = 0; l < LINE_BOARDS.length; l++)
+         {
+            if ((Bitboard.META_LINES[l] & (1 << board)) == 0)
+               continue;
+            int start = LINE_OFFSET + LINE_CLASS[l] * LINE_STATES;
+            delta += weights[start + lineIndex(l, arena, child)] - weights[start + lineIndex(l, arena, parent)];
+         }
+      }
+
+      float side = weights[SIDE_OFFSET + 1] - weights[SIDE_OFFSET];
+      return delta + (redMoved ? side : - side);
+   }
+
+   /**
+    * @param sum A sum of weights
+    * @return The score, from -1 (yellow is winning) to 1 (red is winning)
+    */
+   static float value(float sum)
+   {
+      return (float) Math.tanh(sum);
+   }
+
+   /**
+    * Loads weights saved by save.
+    *
+    * @param file The file to read
+    * @throws IOException If the file can't be read, or was saved with a different number of weights
+    */
+   void load(Path file) throws IOException
+   {
+      ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+      if (bytes.remaining() != weights.length * Float.BYTES)
+         throw new IOException("Expected " + weights.length + " weights in " + file);
+      bytes.asFloatBuffer().get(weights);
+   }
+
+   /**
+    * Saves the weights, as little-endian floats.
+    *
+    * @param file The file to write
+    * @throws IOException If the file can't be written
+    */
+   void save(Path file) throws IOException
+   {
+      ByteBuffer bytes = ByteBuffer.allocate(weights.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      bytes.asFloatBuffer().put(weights);
+      Files.write(file, bytes.array());
+   }
+
+   private static int windowIndex(int w, long red, long yellow)
+   {
+      int i = 4 * w;
+      return cellState(red, yellow, CELLS[i]) + 3 * cellState(red, yellow, CELLS[i + 1])
+              + 9 * cellState(red, yellow, CELLS[i + 2]) + 27 * cellState(red, yellow, CELLS[i + 3]);
+   }
+
+   private static int cellState(long red, long yellow, int cell)
+   {
+      return (int) (red >>> cell) & 1 | ((int) (yellow >>> cell) & 1) << 1;
+   }
+
+   private static int lineIndex(int l, StateArena arena, int handle)
+   {
+      int red = arena.redMask(handle);
+      int yellow = arena.yellowMask(handle);
+      int tied = arena.tiedMask(handle);
+      int index = 0;
+      for (int k = 0; k < 3; k++)
+      {
+         int b = LINE_BOARDS[l][k];
+         int state = (red >>> b & 1) | (yellow >>> b & 1) << 1 | (tied >>> b & 1) * 3;
+         index += POW4[k] * state;
+      }
+      return index;
+   }
+
+   private static int mirror(int cell)
+   {
+      int column = cell / Bitboard.HEIGHT;
+      int row = cell % Bitboard.HEIGHT;
+      return (Bitboard.COLUMNS - 1 - column) * Bitboard.HEIGHT + row;
+   }
+
+   private static boolean sameCells(int[] a, int[] b)
+   {
+      long bitsA = 0;
+      long bitsB = 0;
+      for (int k = 0; k < 4; k++)
+      {
+         bitsA |= 1L << a[k];
+         bitsB |= 1L << b[k];
+      }
+      return bitsA == bitsB;
+   }
+
+   private static int[][] lineBoards()
+   {
+      int[][] boards = new int[Bitboard.META_LINES.length][];
+      for (int l = 0; l < boards.length; l++)
+      {
+         boards[l] = new int[3];
+         int k = 0;
+         for (int b = 0; b < Bitboard.BOARDS; b++)
+         {
+            if ((Bitboard.META_LINES[l] & (1 << b)) != 0)
+               boards[l][k++] = b;
+         }
+      }
+      return boards;
+   }
+}
@@ -0,0 +1,173 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teaches an NTupleNetwork by temporal difference learning. The network plays itself, each side picking the move that
+ * the network likes best one move ahead (or, now and then, a random move), and after every move the score of the
+ * position before is nudged towards the score of the position after. The last position of a game is nudged towards
+ * the real result.
+ * <p>
+ * One thread runs on every core, each playing its own games in its own StateArena. They all update the same weights
+ * without locking: a game only touches a few hundred of the weights, so two threads rarely write the same one, and
+ * when they do, losing one small update doesn't matter.
+ */
+final class NTupleTrainer
+{
+   private static final float LEARNING_RATE = 0.2f; // How far the sum moves towards the target at each step
+   private static final double EXPLORATION = 0.1; // Chance of a random move instead of the best one
+
+   private final NTupleNetwork network;
+   private final StateArena arena = new StateArena(2);
+   private final int handle = arena.allocate();
+   private final int scratch = arena.allocate(); // Where each possible move is tried
+   private final int[] features = new int[NTupleNetwork.FEATURES];
+   private final SplittableRandom random;
+
+   /**
+    * @param network The network to teach
+    * @param seed    Seed for the random moves
+    */
+   NTupleTrainer(NTupleNetwork network, long seed)
+   {
+      this.network = network;
+      random = new SplittableRandom(seed);
+   }
+
+   /**
+    * Plays one game to the end, learning from every move.
+    *
+    * @return The result: StateArena.RED, YELLOW or DRAW
+    */
+   int play()
+   {
+      arena.reset(handle);
+      network.features(arena, handle, features);
+      while (arena.result(handle) == StateArena.IN_PROGRESS)
+      {
+         float sum = network.sum(features); // From the list every time, learn changes the weights
+         int move = random.nextDouble() < EXPLORATION ? randomMove() : bestMove(sum);
+         int board = move / Bitboard.COLUMNS;
+         int column = move % Bitboard.COLUMNS;
+         arena.copy(handle, scratch);
+         arena.play(scratch, board, column);
+         float next = sum + network.moveDelta(arena, handle, scratch, board, column);
+
+         int result = arena.result(scratch);
+         float target = result == StateArena.RED ? 1 : result == StateArena.YELLOW ? - 1
+                 : result == StateArena.DRAW ? 0 : NTupleNetwork.value(next);
+         learn(NTupleNetwork.value(sum), target);
+
+         network.move(features, arena, handle, scratch, board, column);
+         arena.copy(scratch, handle);
+      }
+      return arena.result(handle);
+   }
+
+   /**
+    * Moves the score of the current position towards the target, by gradient descent on the squared difference.
+    */
+   private void learn(float value, float target)
+   {
+      float[] weights = network.weights;
+      // tanh' = 1 - tanh^2, split over every weight in the list so the sum moves by the learning rate
+      float step = LEARNING_RATE / NTupleNetwork.FEATURES * (target - value) * (1 - value * value);
+      for (int feature : features)
+      {
+         weights[feature] += step;
+      }
+   }
+
+   /**
+    * @return The move giving the best score for the side to move, one move ahead
+    */
+   private int bestMove(float sum)
+   {
+      boolean red = arena.isRedToMove(handle);
+      int best = Engine.NO_MOVE;
+      float bestScore = Float.NEGATIVE_INFINITY;
+      for (int move = 0; move < Engine.MOVES; move++)
+      {
+         int board = move / Bitboard.COLUMNS;
+         int column = move % Bitboard.COLUMNS;
+         if (! arena.canPlay(handle, board, column))
+            continue;
+         arena.copy(handle, scratch);
+         int result = arena.play(scratch, board, column);
+         float score = result == StateArena.IN_PROGRESS
+                 ? NTupleNetwork.value(sum + network.moveDelta(arena, handle, scratch, board, column))
+                 : result == StateArena.DRAW ? 0 : result == StateArena.RED ? 1 : - 1;
+         if (! red)
+            score = - score;
+         if (score > bestScore)
+         {
+            bestScore = score;
+            best = move;
+         }
+      }
+      return best;
+   }
+
+   private int randomMove()
+   {
+      int move;
+      do
+      {
+         move = random.nextInt(Engine.MOVES);
+      } while (! arena.canPlay(handle, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS));
+      return move;
+   }
+
+   /**
+    * Trains a network on every core, printing progress as it goes. If a game fails on any thread, the exception is
+    * thrown once every thread has stopped, so the caller doesn't save weights from a run that didn't finish.
+    *
+    * @param network The network to teach
+    * @param games   The number of games to play
+    * @throws InterruptedException If interrupted while waiting for the threads to finish
+    */
+   static void run(NTupleNetwork network, int games) throws InterruptedException
+   {
+      int threads = Runtime.getRuntime().availableProcessors();
+      AtomicInteger started = new AtomicInteger();
+      AtomicInteger finished = new AtomicInteger();
+      int[] results = new int[4]; // Games ending with each result code, guarded by itself
+      long start = System.nanoTime();
+
+      Workers.run("TicTac4 training", threads, t -> {
+         NTupleTrainer trainer = new NTupleTrainer(network, start + t);
+         while (started.getAndIncrement() < games)
+         {
+            int result = trainer.play();
+            synchronized (results)
+            {
+               results[result]++;
+            }
+            int done = finished.incrementAndGet();
+            if (done % 10_000 == 0)
+            {
+               synchronized (results)
+               {
+                  System.out.printf("%d games, %.0f games/sec, red %d, yellow %d, draw %d%n", done,
+                          done / ((System.nanoTime() - start) / 1e9), results[StateArena.RED],
+                          results[StateArena.YELLOW], results[StateArena.DRAW]);
+               }
+            }
+         }
+      });
+      System.out.printf("%d games in %.1f seconds%n", finished.get(), (System.nanoTime() - start) / 1e9);
+   }
+}
@@ -35,6 +35,7 @@ class Piece extends JComponent
    // Booleans used for remembering if the cell has a highlight, or is filled by non-white
    private Boolean highlighted = false;
    private Boolean filled = false;
+   private Boolean hidden = false; // Shown as empty while the Animator's falling piece is on its way
 
    /**
     * The constructor is used to initialize values and add mouse listeners.
@@ -90,7 +91,7 @@ class Piece extends JComponent
       int yPos = 0;
       int xPos = 0;
       g.fillRect(xPos, yPos, width + 2, height + 2);
-      g.setColor(color);
+      g.setColor(hidden ? Color.WHITE : color);
       g.fillOval(xPos + 1, yPos + 1, width, height);
       if (highlighted)
       {
@@ -106,12 +107,44 @@ class Piece extends JComponent
     * @param color The Color object to used
     */
    public void changeColor(Color color)
+   {
+      setColor(color);
+      repaint();
+   }
+
+   /**
+    * Same as changeColor, but without repainting. Used when a lot of Pieces change at once, so the parent panel can be
+    * repainted once instead.
+    *
+    * @param color The Color object to used
+    */
+   public void setColor(Color color)
    {
       this.color = color;
       filled = true;
+   }
+
+   /**
+    * Used to hide the oval's color, showing the cell as empty, while a piece is falling into it
+    *
+    * @param hidden True to show the cell as empty, false to show its color
+    */
+   public void setHidden(Boolean hidden)
+   {
+      this.hidden = hidden;
       repaint();
    }
 
+   /**
+    * Used to find where the oval is drawn inside of the cell
+    *
+    * @return The oval's bounds, relative to this Piece
+    */
+   public Rectangle getOval()
+   {
+      return new Rectangle(1, 1, width, height);
+   }
+
    /**
     * Used to show a highlighted rectangle above a column when hovering - if allowed
     *
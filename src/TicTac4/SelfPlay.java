@@ -0,0 +1,124 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays the Engine against itself with no window, and records every position for training. The first few moves of
+ * each game are random, so that games don't all turn out the same, and every position is searched so it can be
+ * labelled with the Engine's score.
+ * <p>
+ * One SelfPlay plays one game at a time and is not thread safe, run several to use more cores.
+ */
+final class SelfPlay
+{
+   static final int DEPTH = 3; // How many moves ahead each move is searched
+   static final int RANDOM_MOVES = 8; // Random moves at the start of each game
+
+   private final Engine engine = new Engine(DEPTH, 16);
+   private final AtomicLong noDeadline = new AtomicLong(Engine.NO_DEADLINE);
+   private final StateArena arena = new StateArena(1);
+   private final int handle = arena.allocate();
+   private final long[] position = new long[StateArena.STRIDE];
+   private final SplittableRandom random;
+
+   /**
+    * @param seed Seed for the random opening moves
+    */
+   SelfPlay(long seed)
+   {
+      random = new SplittableRandom(seed);
+   }
+
+   /**
+    * Plays one game to the end.
+    *
+    * @param game Filled with every position of the game, cleared first
+    * @return The result: StateArena.RED, YELLOW or DRAW
+    */
+   int play(TrainingDataWriter.Game game)
+   {
+      game.clear();
+      arena.reset(handle);
+      int moves = 0;
+      while (arena.result(handle) == StateArena.IN_PROGRESS)
+      {
+         arena.save(handle, position);
+         int move = engine.search(position, noDeadline)[0];
+         int score = arena.isRedToMove(handle) ? engine.score() : - engine.score();
+         game.add(arena, handle, score);
+
+         if (moves++ < RANDOM_MOVES)
+            move = randomMove();
+         arena.play(handle, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS);
+      }
+      return arena.result(handle);
+   }
+
+   private int randomMove()
+   {
+      int move;
+      do
+      {
+         move = random.nextInt(Engine.MOVES);
+      } while (! arena.canPlay(handle, move / Bitboard.COLUMNS, move % Bitboard.COLUMNS));
+      return move;
+   }
+
+   /**
+    * Plays games on every core and writes them to a file, printing progress as it goes.
+    *
+    * @param games    The number of games to play
+    * @param file     The file to write
+    * @param compress Whether to compress the file
+    * @throws IOException If the file can't be written
+    */
+   static void run(int games, Path file, boolean compress) throws IOException
+   {
+      int threads = Runtime.getRuntime().availableProcessors();
+      AtomicInteger started = new AtomicInteger();
+      AtomicInteger finished = new AtomicInteger();
+      long start = System.nanoTime();
+
+      try (TrainingDataWriter writer = new TrainingDataWriter(file, 4096, compress))
+      {
+         Workers.run("TicTac4 self-play", threads, t -> {
+            SelfPlay selfPlay = new SelfPlay(start + t);
+            TrainingDataWriter.Game game = new TrainingDataWriter.Game();
+            while (started.getAndIncrement() < games)
+            {
+               writer.write(game, selfPlay.play(game));
+               int done = finished.incrementAndGet();
+               if (done % 100 == 0)
+                  System.out.printf("%d games, %.1f games/sec%n", done, done / seconds(start));
+            }
+         });
+         System.out.printf("%d games, %d positions in %.1f seconds%n", finished.get(), writer.positions(),
+                 seconds(start));
+      } catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new IOException("Interrupted", e);
+      }
+   }
+
+   private static double seconds(long start)
+   {
+      return (System.nanoTime() - start) / 1e9;
+   }
+}
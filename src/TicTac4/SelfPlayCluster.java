@@ -0,0 +1,283 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs SelfPlay in several worker processes on this computer, so a long run isn't held back by one JVM's heap and
+ * garbage collector. The coordinator starts one worker JVM per slot and talks to it over a socket on the loopback
+ * address: it hands out batches of games, and the worker sends back every game as soon as it is finished, which the
+ * coordinator writes with one TrainingDataWriter.
+ * <p>
+ * If a worker dies or stops answering, the games of its batch that weren't received go back to be handed out again,
+ * and a new worker is started in its slot. A game half sent when the worker died is thrown away, so every game in the
+ * file is whole and the file ends up with the number of games asked for.
+ * <p>
+ * Everything sent is big-endian, as written by DataOutputStream:
+ * | coordinator | int    | Games in the next batch, or 0 for the worker to exit
+ * | worker      | int    | Result of a game: StateArena.RED, YELLOW or DRAW
+ * | worker      | record | The game's positions, see TrainingDataWriter.Game.write
+ * The worker sends one result and record for each game in the batch, then waits for the next batch.
+ */
+final class SelfPlayCluster
+{
+   private static final int BATCH = 16; // Games handed to a worker at a time
+   private static final int MAX_RESTARTS = 5; // Workers started in a row in one slot without a game, before giving up
+   private static final int START_MILLIS = 30_000; // Time a new worker has to connect
+   private static final int POLL_MILLIS = 500; // How often to check that a new worker is still alive while it connects
+   private static final int GAME_MILLIS = 60_000; // Time a worker has to finish a game before it is thought stuck
+
+   private final int games;
+   private final TrainingDataWriter writer;
+   private final AtomicInteger unclaimed; // Games not yet handed to a worker, or handed back by one that died
+   private final AtomicInteger finished = new AtomicInteger();
+   private final AtomicInteger restarts = new AtomicInteger();
+   private final long start = System.nanoTime();
+
+   private SelfPlayCluster(int games, TrainingDataWriter writer)
+   {
+      this.games = games;
+      this.writer = writer;
+      unclaimed = new AtomicInteger(games);
+   }
+
+   /**
+    * Plays games in worker processes and writes them to a file, printing progress as it goes.
+    *
+    * @param workers  The number of worker processes, usually one per core
+    * @param games    The number of games to play
+    * @param file     The file to write
+    * @param compress Whether to compress the file
+    * @throws IOException If the file can't be written, or the workers kept dying before every game was played
+    */
+   static void run(int workers, int games, Path file, boolean compress) throws IOException
+   {
+      try (TrainingDataWriter writer = new TrainingDataWriter(file, 4096, compress))
+      {
+         SelfPlayCluster cluster = new SelfPlayCluster(games, writer);
+         Workers.run("TicTac4 coordinator", workers, cluster::runSlot);
+         if (cluster.finished.get() < games)
+            throw new IOException("Workers kept dying, only " + cluster.finished.get() + " of " + games
+                    + " games were played");
+         System.out.printf("%d games, %d positions in %.1f seconds with %d workers (%.1f games/sec, %d restarts)%n",
+                 games, writer.positions(), cluster.seconds(), workers, games / cluster.seconds(),
+                 cluster.restarts.get());
+      } catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new IOException("Interrupted", e);
+      }
+   }
+
+   /**
+    * Keeps one worker process running and busy until there are no games left to hand out.
+    *
+    * @throws IOException If the file can't be written
+    */
+   private void runSlot(int slot) throws IOException
+   {
+      int failed = 0; // Workers started in a row that died without sending a game
+      while (failed < MAX_RESTARTS)
+      {
+         if (unclaimed.get() == 0)
+            return;
+
+         Process process = null;
+         int[] progress = new int[2]; // Games of the current batch not yet received, and games received in all
+         try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()))
+         {
+            process = startWorker(server.getLocalPort(), System.nanoTime() + slot);
+            try (Socket socket = accept(server, process))
+            {
+               socket.setSoTimeout(GAME_MILLIS);
+               serve(socket, progress);
+               return; // No more games to hand out
+            }
+         } catch (IOException e)
+         {
+            if (e instanceof WriterException)
+               throw e;
+            System.err.printf("Worker %d failed: %s, restarting%n", slot, e);
+         } finally
+         {
+            unclaimed.addAndGet(progress[0]);
+            if (process != null)
+               stop(process);
+         }
+
+         restarts.incrementAndGet();
+         failed = progress[1] > 0 ? 0 : failed + 1;
+      }
+      System.err.printf("Worker %d failed %d times in a row, giving up on it%n", slot, MAX_RESTARTS);
+   }
+
+   /**
+    * Waits for a new worker to connect, giving up as soon as it exits rather than after the whole START_MILLIS.
+    *
+    * @throws IOException If the worker exited or didn't connect in time
+    */
+   private static Socket accept(ServerSocket server, Process process) throws IOException
+   {
+      server.setSoTimeout(POLL_MILLIS);
+      long deadline = System.nanoTime() + START_MILLIS * 1_000_000L;
+      while (true)
+      {
+         try
+         {
+            return server.accept();
+         } catch (SocketTimeoutException e)
+         {
+            if (! process.isAlive())
+               throw new IOException("Worker exited with code " + process.exitValue() + " before connecting");
+            if (System.nanoTime() - deadline > 0)
+               throw new IOException("Worker didn't connect in " + START_MILLIS / 1000 + " seconds");
+         }
+      }
+   }
+
+   /**
+    * Hands batches to one connected worker and writes the games it sends back, until there are none left.
+    *
+    * @param progress Kept up to date with the number of games handed to the worker and not yet received, then the
+    *                 number of games received
+    */
+   private void serve(Socket socket, int[] progress) throws IOException
+   {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      TrainingDataWriter.Game game = new TrainingDataWriter.Game();
+      while (true)
+      {
+         int batch = claim();
+         progress[0] = batch;
+         out.writeInt(batch);
+         out.flush();
+         if (batch == 0)
+            return;
+
+         while (progress[0] > 0)
+         {
+            int result = in.readInt();
+            if (result != StateArena.RED && result != StateArena.YELLOW && result != StateArena.DRAW)
+               throw new IOException("Bad game result " + result);
+            game.read(in);
+            try
+            {
+               writer.write(game, result);
+            } catch (IOException e)
+            {
+               throw new WriterException(e);
+            }
+            progress[0]--;
+            progress[1]++;
+
+            int done = finished.incrementAndGet();
+            if (done % 100 == 0)
+               System.out.printf("%d games, %.1f games/sec%n", done, done / seconds());
+         }
+      }
+   }
+
+   /**
+    * @return The number of games in the next batch, 0 if there are none left
+    */
+   private int claim()
+   {
+      while (true)
+      {
+         int games = unclaimed.get();
+         int batch = Math.min(BATCH, games);
+         if (unclaimed.compareAndSet(games, games - batch))
+            return batch;
+      }
+   }
+
+   private Process startWorker(int port, long seed) throws IOException
+   {
+      String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+      return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Main.class.getName(), "-worker",
+              Integer.toString(port), Long.toString(seed)).inheritIO().start();
+   }
+
+   private static void stop(Process process)
+   {
+      try
+      {
+         if (! process.waitFor(1, TimeUnit.SECONDS))
+            process.destroyForcibly().waitFor();
+      } catch (InterruptedException e)
+      {
+         process.destroyForcibly();
+         Thread.currentThread().interrupt();
+      }
+   }
+
+   private double seconds()
+   {
+      return (System.nanoTime() - start) / 1e9;
+   }
+
+   /**
+    * Plays the batches handed out by a coordinator, for as long as it keeps handing them out. This is what runs in a
+    * worker process.
+    *
+    * @param port The coordinator's port on the loopback address
+    * @param seed Seed for SelfPlay
+    * @throws IOException If the coordinator can't be reached
+    */
+   static void work(int port, long seed) throws IOException
+   {
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port))
+      {
+         DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+         SelfPlay selfPlay = new SelfPlay(seed);
+         TrainingDataWriter.Game game = new TrainingDataWriter.Game();
+         for (int batch = in.readInt(); batch > 0; batch = in.readInt())
+         {
+            for (int g = 0; g < batch; g++)
+            {
+               out.writeInt(selfPlay.play(game));
+               game.write(out);
+               out.flush(); // Send each game as it is finished, so little is lost if this process dies
+            }
+         }
+      }
+   }
+
+   /**
+    * The coordinator's own file couldn't be written, which restarting a worker won't fix
+    */
+   private static final class WriterException extends IOException
+   {
+      private static final long serialVersionUID = 1L;
+
+      WriterException(IOException cause)
+      {
+         super(cause.getMessage(), cause);
+      }
+   }
+}
@@ -0,0 +1,368 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * This class stores whole Tic-Tac-4 games outside of the Java heap, so that millions of them can be kept around without
+ * making a Piece or BoardPanel for each one. Every game takes the same number of longs (the stride) in one direct
+ * buffer, and is referred to by an int handle instead of an object. Freed games are kept in a free list, threaded
+ * through the freed slots themselves, and handed out again by allocate.
+ * <p>
+ * The layout of one game, in longs:
+ * | 0 - 8   | Red bitboard of each Connect-4 game (see Bitboard)
+ * | 9 - 17  | Yellow bitboard of each Connect-4 game
+ * | 18 - 20 | Column heights, 3 bits per column, 3 Connect-4 games per long
+ * | 21      | Tic-Tac-Toe masks: red wins, yellow wins, ties, side to move and the result
+ * <p>
+ * That is 176 bytes per game. This class is not thread safe, each thread should use its own arena.
+ */
+final class StateArena
+{
+   // Results, returned by play and result
+   static final int IN_PROGRESS = 0;
+   static final int RED = 1;
+   static final int YELLOW = 2;
+   static final int DRAW = 3;
+
+   // Offsets of each field inside of a game
+   private static final int RED_OFFSET = 0;
+   private static final int YELLOW_OFFSET = RED_OFFSET + Bitboard.BOARDS;
+   private static final int HEIGHTS_OFFSET = YELLOW_OFFSET + Bitboard.BOARDS;
+   private static final int META_OFFSET = HEIGHTS_OFFSET + 3;
+   static final int STRIDE = META_OFFSET + 1; // Number of longs used by one game
+
+   // Bit positions inside of the meta long
+   private static final int YELLOW_SHIFT = Bitboard.BOARDS;
+   private static final int TIED_SHIFT = 2 * Bitboard.BOARDS;
+   private static final int SIDE_SHIFT = 3 * Bitboard.BOARDS; // Set if yellow is to move
+   private static final int RESULT_SHIFT = SIDE_SHIFT + 1;
+   private static final long FREED = 1L << 63; // Set in the meta long of a freed slot, never set in a game
+
+   private static final int HEIGHT_BITS = 3; // Enough for 0 - 6
+   private static final int BOARD_HEIGHT_BITS = HEIGHT_BITS * Bitboard.COLUMNS; // 21 bits per Connect-4 game
+
+   // The most games one buffer can address
+   static final int MAX_CAPACITY = Integer.MAX_VALUE / (STRIDE * Long.BYTES);
+
+   private final LongBuffer data; // The off-heap storage, STRIDE longs per game
+   private final int capacity;
+   private int next; // The first slot that has never been handed out
+   private int freeHead = - 1; // The most recently freed slot, or -1 if none
+   private int live; // Number of handles currently in use
+
+   /**
+    * Constructor that reserves room for the given number of games up front. The memory is not on the Java heap, and
+    * is released when the arena is garbage collected.
+    *
+    * @param capacity The most games that can be allocated at once
+    */
+   StateArena(int capacity)
+   {
+      if (capacity <= 0 || capacity > MAX_CAPACITY)
+         throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY + ": " + capacity);
+      this.capacity = capacity;
+      data = ByteBuffer.allocateDirect(capacity * STRIDE * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+   }
+
+   /**
+    * Hands out a game in the starting position: every board empty, red to move.
+    *
+    * @return The handle of the game
+    */
+   int allocate()
+   {
+      int handle;
+      if (freeHead >= 0)
+      {
+         handle = freeHead;
+         freeHead = (int) data.get(handle * STRIDE); // Freed slots keep the next free slot in their first long
+      } else if (next < capacity)
+      {
+         handle = next++;
+      } else
+      {
+         throw new IllegalStateException("Arena is full, capacity " + capacity);
+      }
+      live++;
+      reset(handle);
+      return handle;
+   }
+
+   /**
+    * Gives a game back to the arena, so the slot can be handed out again. The handle must not be used afterwards.
+    *
+    * @param handle The game to free
+    * @throws IllegalArgumentException If the handle was never handed out by this arena
+    * @throws IllegalStateException    If the game was already freed
+    */
+   void free(int handle)
+   {
+      if (handle < 0 || handle >= next)
+         throw new IllegalArgumentException("Not a handle from this arena: " + handle);
+      int meta = handle * STRIDE + META_OFFSET;
+      if ((data.get(meta) & FREED) != 0)
+         throw new IllegalStateException("Game already freed: " + handle);
+      data.put(meta, FREED);
+      data.put(handle * STRIDE, freeHead);
+      freeHead = handle;
+      live--;
+   }
+
+   /**
+    * Resets a game to the starting position
+    *
+    * @param handle The game to reset
+    */
+   void reset(int handle)
+   {
+      int base = handle * STRIDE;
+      for (int i = 0; i < STRIDE; i++)
+      {
+         data.put(base + i, 0L);
+      }
+   }
+
+   /**
+    * Copies one game over another, used to try a move without losing the original.
+    *
+    * @param from The game to copy
+    * @param to   The game to overwrite
+    */
+   void copy(int from, int to)
+   {
+      int src = from * STRIDE;
+      int dst = to * STRIDE;
+      for (int i = 0; i < STRIDE; i++)
+      {
+         data.put(dst + i, data.get(src + i));
+      }
+   }
+
+   /**
+    * Copies a game out of the arena, used to hand a game to another thread or another arena.
+    *
+    * @param handle The game to copy
+    * @param out    An array of at least STRIDE longs
+    */
+   void save(int handle, long[] out)
+   {
+      int base = handle * STRIDE;
+      for (int i = 0; i < STRIDE; i++)
+      {
+         out[i] = data.get(base + i);
+      }
+   }
+
+   /**
+    * Overwrites a game with one copied out by save.
+    *
+    * @param handle The game to overwrite
+    * @param in     The saved game
+    */
+   void load(int handle, long[] in)
+   {
+      int base = handle * STRIDE;
+      for (int i = 0; i < STRIDE; i++)
+      {
+         data.put(base + i, in[i]);
+      }
+   }
+
+   /**
+    * @return The number of games currently allocated
+    */
+   int size()
+   {
+      return live;
+   }
+
+   /**
+    * @return The most games that can be allocated at once
+    */
+   int capacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * @param handle The game
+    * @param board  The Connect-4 game, row * 3 + column in the Tic-Tac-Toe grid
+    * @return Red's bitboard for the Connect-4 game
+    */
+   long red(int handle, int board)
+   {
+      return data.get(handle * STRIDE + RED_OFFSET + board);
+   }
+
+   /**
+    * @param handle The game
+    * @param board  The Connect-4 game, row * 3 + column in the Tic-Tac-Toe grid
+    * @return Yellow's bitboard for the Connect-4 game
+    */
+   long yellow(int handle, int board)
+   {
+      return data.get(handle * STRIDE + YELLOW_OFFSET + board);
+   }
+
+   /**
+    * @param handle The game
+    * @param board  The Connect-4 game
+    * @param column The column of the Connect-4 game
+    * @return The number of pieces in the column
+    */
+   int height(int handle, int board, int column)
+   {
+      long heights = data.get(handle * STRIDE + HEIGHTS_OFFSET + board / 3);
+      return (int) (heights >>> ((board % 3) * BOARD_HEIGHT_BITS + column * HEIGHT_BITS)) & 7;
+   }
+
+   /**
+    * @param handle The game
+    * @return The Connect-4 games won by red, as a 9 bit mask
+    */
+   int redMask(int handle)
+   {
+      return (int) meta(handle) & Bitboard.ALL_BOARDS;
+   }
+
+   /**
+    * @param handle The game
+    * @return The Connect-4 games won by yellow, as a 9 bit mask
+    */
+   int yellowMask(int handle)
+   {
+      return (int) (meta(handle) >>> YELLOW_SHIFT) & Bitboard.ALL_BOARDS;
+   }
+
+   /**
+    * @param handle The game
+    * @return The Connect-4 games that were tied, as a 9 bit mask
+    */
+   int tiedMask(int handle)
+   {
+      return (int) (meta(handle) >>> TIED_SHIFT) & Bitboard.ALL_BOARDS;
+   }
+
+   /**
+    * @param handle The game
+    * @return Every Connect-4 game that is finished, won or tied
+    */
+   int resolvedMask(int handle)
+   {
+      long meta = meta(handle);
+      return (int) (meta | (meta >>> YELLOW_SHIFT) | (meta >>> TIED_SHIFT)) & Bitboard.ALL_BOARDS;
+   }
+
+   /**
+    * @param handle The game
+    * @return True if it is red's turn, false if it is yellow's
+    */
+   boolean isRedToMove(int handle)
+   {
+      return (meta(handle) & (1L << SIDE_SHIFT)) == 0;
+   }
+
+   /**
+    * @param handle The game
+    * @return IN_PROGRESS, RED, YELLOW or DRAW
+    */
+   int result(int handle)
+   {
+      return (int) (meta(handle) >>> RESULT_SHIFT) & 3;
+   }
+
+   /**
+    * Checks if a piece can be dropped: the game is not over, the Connect-4 game is not finished, and the column has room.
+    *
+    * @param handle The game
+    * @param board  The Connect-4 game
+    * @param column The column to drop in
+    * @return True if the move is legal, false otherwise
+    */
+   boolean canPlay(int handle, int board, int column)
+   {
+      return result(handle) == IN_PROGRESS && (resolvedMask(handle) & (1 << board)) == 0
+              && height(handle, board, column) < Bitboard.ROWS;
+   }
+
+   /**
+    * Drops a piece of the current turn's color into a Connect-4 game, then switches the turn. Unlike a game between two
+    * people, where each BoardPanel keeps its own turn, there is one side to move for the whole game: after red plays in
+    * any Connect-4 game, yellow is next in all of them. BigBoard uses this rule too when playing against the CPU.
+    * Same as BoardPanel, the Connect-4 game is finished if the piece makes four in a row, or fills the board. Same as
+    * BigBoard, the whole game is won by three wins in a line, and tied by three ties in a line or by every Connect-4
+    * game being finished. The move is expected to be legal, see canPlay.
+    *
+    * @param handle The game
+    * @param board  The Connect-4 game
+    * @param column The column to drop in
+    * @return The result of the whole game after the move
+    */
+   int play(int handle, int board, int column)
+   {
+      int base = handle * STRIDE;
+      long meta = data.get(base + META_OFFSET);
+      boolean red = (meta & (1L << SIDE_SHIFT)) == 0;
+
+      // Raise the column and place the piece on top
+      int heightIndex = base + HEIGHTS_OFFSET + board / 3;
+      int heightShift = (board % 3) * BOARD_HEIGHT_BITS + column * HEIGHT_BITS;
+      long heights = data.get(heightIndex);
+      int height = (int) (heights >>> heightShift) & 7;
+      data.put(heightIndex, heights + (1L << heightShift));
+
+      int discsIndex = base + (red ? RED_OFFSET : YELLOW_OFFSET) + board;
+      long discs = data.get(discsIndex) | (1L << (column * Bitboard.HEIGHT + height));
+      data.put(discsIndex, discs);
+
+      if (Bitboard.hasWon(discs))
+      {
+         meta |= 1L << (board + (red ? 0 : YELLOW_SHIFT));
+      } else if (Bitboard.isFull(discs | data.get(base + (red ? YELLOW_OFFSET : RED_OFFSET) + board)))
+      {
+         meta |= 1L << (board + TIED_SHIFT);
+      }
+
+      meta ^= 1L << SIDE_SHIFT;
+      int result = result(meta);
+      meta |= (long) result << RESULT_SHIFT;
+      data.put(base + META_OFFSET, meta);
+      return result;
+   }
+
+   private long meta(int handle)
+   {
+      return data.get(handle * STRIDE + META_OFFSET);
+   }
+
+   /**
+    * Same as BigBoard's checkWinners, for the Tic-Tac-Toe masks inside of a meta long.
+    */
+   private static int result(long meta)
+   {
+      int red = (int) meta & Bitboard.ALL_BOARDS;
+      int yellow = (int) (meta >>> YELLOW_SHIFT) & Bitboard.ALL_BOARDS;
+      int tied = (int) (meta >>> TIED_SHIFT) & Bitboard.ALL_BOARDS;
+      if (Bitboard.hasLine(red))
+         return RED;
+      if (Bitboard.hasLine(yellow))
+         return YELLOW;
+      if (Bitboard.hasLine(tied) || (red | yellow | tied) == Bitboard.ALL_BOARDS)
+         return DRAW;
+      return IN_PROGRESS;
+   }
+}
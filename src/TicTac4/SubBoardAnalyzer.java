@@ -0,0 +1,329 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates a whole Tic-Tac-4 game by looking at each Connect-4 game on its own. Every unfinished Connect-4 game is
+ * played out many times with random moves, on its own and in parallel with the others, giving the chances of red
+ * winning, yellow winning or a tie, and how many more moves it usually takes to finish. Those chances are then put
+ * together through the Tic-Tac-Toe lines, instead of searching every combination of moves across all nine games.
+ * <p>
+ * Results are cached by the Connect-4 game's bitboards, so the same position showing up in another game (or another
+ * part of the grid) is only played out once.
+ * <p>
+ * Run from Main with -analyze, Benchmark compares it in parallel and one game at a time.
+ */
+final class SubBoardAnalyzer
+{
+   /**
+    * The outlook of one Connect-4 game: the chance of each result, and the average number of moves left until it is
+    * finished.
+    */
+   static final class Outlook
+   {
+      final float red;
+      final float yellow;
+      final float draw;
+      final float moves;
+
+      Outlook(float red, float yellow, float draw, float moves)
+      {
+         this.red = red;
+         this.yellow = yellow;
+         this.draw = draw;
+         this.moves = moves;
+      }
+   }
+
+   // Outlooks for Connect-4 games that are already finished
+   private static final Outlook RED_WON = new Outlook(1, 0, 0, 0);
+   private static final Outlook YELLOW_WON = new Outlook(0, 1, 0, 0);
+   private static final Outlook TIED = new Outlook(0, 0, 1, 0);
+
+   private static final int MAX_CACHED = 1 << 20; // The cache is emptied once it holds this many outlooks
+
+   // Whether each 9 bit mask of Connect-4 games covers a Tic-Tac-Toe line
+   private static final boolean[] HAS_LINE = new boolean[1 << Bitboard.BOARDS];
+
+   static
+   {
+      for (int mask = 0; mask < HAS_LINE.length; mask++)
+      {
+         HAS_LINE[mask] = Bitboard.hasLine(mask);
+      }
+   }
+
+   private final int playouts; // Random games played for each Connect-4 position
+   private final boolean parallel;
+   private final ConcurrentHashMap<Key, Outlook> cache = new ConcurrentHashMap<>();
+   private final LongAdder lookups = new LongAdder();
+   private final LongAdder hits = new LongAdder();
+
+   /**
+    * @param playouts How many random games to play for each Connect-4 position, more is slower but more accurate
+    * @param parallel True to look at the nine Connect-4 games at the same time, false for one after another
+    */
+   SubBoardAnalyzer(int playouts, boolean parallel)
+   {
+      this.playouts = playouts;
+      this.parallel = parallel;
+   }
+
+   /**
+    * Finds the outlook of each of the nine Connect-4 games, in parallel unless this analyzer was made otherwise.
+    *
+    * @param arena  The arena holding the game
+    * @param handle The game to look at
+    * @return The outlook of each Connect-4 game, by row * 3 + column in the Tic-Tac-Toe grid
+    */
+   Outlook[] analyze(StateArena arena, int handle)
+   {
+      // Copy everything out first, the arena is not safe to share between threads
+      long[] red = new long[Bitboard.BOARDS];
+      long[] yellow = new long[Bitboard.BOARDS];
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         red[b] = arena.red(handle, b);
+         yellow[b] = arena.yellow(handle, b);
+      }
+      int redMask = arena.redMask(handle);
+      int yellowMask = arena.yellowMask(handle);
+      int tiedMask = arena.tiedMask(handle);
+      boolean redToMove = arena.isRedToMove(handle);
+
+      IntStream boards = IntStream.range(0, Bitboard.BOARDS);
+      return (parallel ? boards.parallel() : boards).mapToObj(b -> {
+         if ((redMask & (1 << b)) != 0)
+            return RED_WON;
+         if ((yellowMask & (1 << b)) != 0)
+            return YELLOW_WON;
+         if ((tiedMask & (1 << b)) != 0)
+            return TIED;
+         return analyze(red[b], yellow[b], redToMove);
+      }).toArray(Outlook[]::new);
+   }
+
+   /**
+    * Finds the outlook of a single unfinished Connect-4 game, from the cache if it has been seen before.
+    *
+    * @param red       Red's bitboard
+    * @param yellow    Yellow's bitboard
+    * @param redToMove Whether red makes the next move in this Connect-4 game
+    * @return The outlook of the game
+    */
+   Outlook analyze(long red, long yellow, boolean redToMove)
+   {
+      Key key = new Key(red, yellow, redToMove);
+      Outlook outlook = cache.get(key);
+      lookups.increment();
+      if (outlook != null)
+         hits.increment();
+      else
+      {
+         outlook = playOut(red, yellow, redToMove, new SplittableRandom(key.hashCode()));
+         if (cache.size() >= MAX_CACHED)
+            cache.clear();
+         cache.put(key, outlook);
+      }
+      return outlook;
+   }
+
+   /**
+    * @return The share of unfinished Connect-4 games found in the cache, from 0 to 1
+    */
+   double hitRate()
+   {
+      long n = lookups.sum();
+      return n == 0 ? 0 : (double) hits.sum() / n;
+   }
+
+   /**
+    * Puts the nine outlooks together through the Tic-Tac-Toe lines, treating the Connect-4 games as independent. Every
+    * way the nine games can end (red, yellow or a tie for each, 3^9 in all) is weighted by the product of its chances.
+    * It counts for red if red has a line and yellow has none, and for yellow the other way around. The lines share
+    * games, so they can't be treated as independent of each other. If both colors have a line, or a line of three
+    * ties is there alongside one, the game would have ended at whichever came first, which the outlooks don't tell;
+    * those count for neither color, the same as a tie.
+    *
+    * @param outlooks The outlook of each Connect-4 game, from analyze
+    * @return The chance of red winning the Tic-Tac-Toe game minus the chance of yellow winning it, from -1 to 1
+    */
+   static double value(Outlook[] outlooks)
+   {
+      return combine(outlooks, 0, 0, 0, 0, 1);
+   }
+
+   /**
+    * Adds up the value over every way the Connect-4 games from board on can end, given how the ones before it ended
+    *
+    * @param weight The chance of the games before board ending the way the masks say
+    */
+   private static double combine(Outlook[] outlooks, int board, int redMask, int yellowMask, int tiedMask,
+                                 double weight)
+   {
+      if (weight == 0)
+         return 0; // Finished games leave most assignments impossible
+      if (board == Bitboard.BOARDS)
+      {
+         boolean red = HAS_LINE[redMask];
+         boolean yellow = HAS_LINE[yellowMask];
+         if (HAS_LINE[tiedMask] || red == yellow)
+            return 0;
+         return red ? weight : - weight;
+      }
+      Outlook o = outlooks[board];
+      int bit = 1 << board;
+      return combine(outlooks, board + 1, redMask | bit, yellowMask, tiedMask, weight * o.red)
+              + combine(outlooks, board + 1, redMask, yellowMask | bit, tiedMask, weight * o.yellow)
+              + combine(outlooks, board + 1, redMask, yellowMask, tiedMask | bit, weight * o.draw);
+   }
+
+   /**
+    * Plays the moves from the start of a game, then prints the outlook of each Connect-4 game and the game's value.
+    *
+    * @param moves Moves as board * 7 + column, see Engine
+    * @throws IllegalArgumentException If a move can't be played
+    */
+   static void run(int[] moves)
+   {
+      StateArena arena = new StateArena(1);
+      int handle = arena.allocate();
+      for (int move : moves)
+      {
+         int board = move / Bitboard.COLUMNS;
+         int column = move % Bitboard.COLUMNS;
+         if (move < 0 || move >= Engine.MOVES || ! arena.canPlay(handle, board, column))
+            throw new IllegalArgumentException("Can't play column " + column + " of board " + board);
+         arena.play(handle, board, column);
+      }
+
+      long start = System.nanoTime();
+      Outlook[] outlooks = new SubBoardAnalyzer(4096, true).analyze(arena, handle);
+      double millis = (System.nanoTime() - start) / 1e6;
+      System.out.println("board   red  yellow   draw  moves left");
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         Outlook o = outlooks[b];
+         System.out.printf("%5d %5.2f %7.2f %6.2f %11.1f%n", b, o.red, o.yellow, o.draw, o.moves);
+      }
+      System.out.printf("value %+.3f (red - yellow chance of a Tic-Tac-Toe line), %s to move, %.1f ms%n",
+              value(outlooks), arena.isRedToMove(handle) ? "red" : "yellow", millis);
+   }
+
+   /**
+    * Plays the Connect-4 game out to the end with random moves, once for each playout, all at the same time. Every
+    * move is made in every unfinished playout before BatchWins checks them all.
+    */
+   private Outlook playOut(long startRed, long startYellow, boolean redToMove, SplittableRandom random)
+   {
+      long[] red = new long[playouts];
+      long[] yellow = new long[playouts];
+      long[] columns = new long[playouts];
+      byte[] outcomes = new byte[playouts];
+      BatchWins batch = new BatchWins(playouts);
+      Arrays.fill(red, startRed);
+      Arrays.fill(yellow, startYellow);
+
+      int[] counts = new int[4]; // Finished playouts by result
+      long moves = 0; // Moves made over every playout
+      int unfinished = playouts;
+      boolean redTurn = redToMove;
+      while (unfinished > 0)
+      {
+         BatchWins.legalColumns(red, yellow, playouts, columns);
+         for (int i = 0; i < playouts; i++)
+         {
+            if (outcomes[i] != StateArena.IN_PROGRESS)
+               continue;
+            int column = pickColumn((int) columns[i], random);
+            long occupied = red[i] | yellow[i];
+            long bottom = 1L << (column * Bitboard.HEIGHT);
+            long bit = (occupied + bottom) & (bottom * ((1L << Bitboard.ROWS) - 1)); // Lowest empty cell of the column
+            if (redTurn)
+               red[i] |= bit;
+            else
+               yellow[i] |= bit;
+            moves++;
+         }
+         redTurn = ! redTurn;
+
+         batch.outcomes(red, yellow, playouts, outcomes);
+         unfinished = 0;
+         for (int i = 0; i < playouts; i++)
+         {
+            if (outcomes[i] == StateArena.IN_PROGRESS)
+               unfinished++;
+         }
+      }
+
+      for (int i = 0; i < playouts; i++)
+      {
+         counts[outcomes[i]]++;
+      }
+      float n = playouts;
+      return new Outlook(counts[StateArena.RED] / n, counts[StateArena.YELLOW] / n, counts[StateArena.DRAW] / n,
+              moves / n);
+   }
+
+   /**
+    * Picks one of the set bits of the mask at random
+    */
+   private static int pickColumn(int columns, SplittableRandom random)
+   {
+      int skip = random.nextInt(Integer.bitCount(columns));
+      for (int i = 0; i < skip; i++)
+      {
+         columns &= columns - 1; // Drop the lowest set bit
+      }
+      return Integer.numberOfTrailingZeros(columns);
+   }
+
+   /**
+    * Cache key: a Connect-4 position and whose turn it is in it
+    */
+   private static final class Key
+   {
+      private final long red;
+      private final long yellow;
+      private final boolean redToMove;
+
+      Key(long red, long yellow, boolean redToMove)
+      {
+         this.red = red;
+         this.yellow = yellow;
+         this.redToMove = redToMove;
+      }
+
+      @Override
+      public boolean equals(Object o)
+      {
+         if (! (o instanceof Key))
+            return false;
+         Key k = (Key) o;
+         return red == k.red && yellow == k.yellow && redToMove == k.redToMove;
+      }
+
+      @Override
+      public int hashCode()
+      {
+         long h = red * 0x9E3779B97F4A7C15L ^ yellow * 0xC2B2AE3D27D4EB4FL ^ (redToMove ? 1 : 0);
+         return (int) (h ^ (h >>> 32));
+      }
+   }
+}
@@ -0,0 +1,65 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+/**
+ * Decides how long the Engine may think about a move. Every move gets at least the base time. More is given as
+ * Connect-4 games finish, since the moves left matter more, and for every Tic-Tac-Toe line that one color is a single
+ * Connect-4 game away from completing. The time never goes over the limit, however critical the game looks.
+ */
+final class TimeManager
+{
+   private static final double PER_RESOLVED = 0.15; // Extra time for each finished Connect-4 game
+   private static final double PER_CRITICAL_LINE = 0.5; // Extra time for each line one game away from being won
+
+   private final long baseNanos;
+   private final long limitNanos;
+
+   /**
+    * @param baseMillis  The time given to an ordinary move
+    * @param limitMillis The most time any move is given
+    */
+   TimeManager(long baseMillis, long limitMillis)
+   {
+      baseNanos = baseMillis * 1_000_000L;
+      limitNanos = limitMillis * 1_000_000L;
+   }
+
+   /**
+    * Works out the time for the next move.
+    *
+    * @param arena  The arena holding the game
+    * @param handle The game, with the Engine to move
+    * @return The time to search, in nanoseconds
+    */
+   long budget(StateArena arena, int handle)
+   {
+      int red = arena.redMask(handle);
+      int yellow = arena.yellowMask(handle);
+      int tied = arena.tiedMask(handle);
+      int resolved = red | yellow | tied;
+
+      int critical = 0;
+      for (int line : Bitboard.META_LINES)
+      {
+         if ((line & resolved) == line)
+            continue; // Nothing left to play for in this line
+         if (Integer.bitCount(line & red) == 2 && (line & (yellow | tied)) == 0
+                 || Integer.bitCount(line & yellow) == 2 && (line & (red | tied)) == 0)
+            critical++;
+      }
+
+      double scale = (1 + PER_RESOLVED * Integer.bitCount(resolved)) * (1 + PER_CRITICAL_LINE * critical);
+      return Math.min(limitNanos, (long) (baseNanos * scale));
+   }
+}
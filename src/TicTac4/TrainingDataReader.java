@@ -0,0 +1,208 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a file made by TrainingDataWriter one block at a time. The file is mapped a large window at a time, and each
+ * window is only replaced once the reader moves past it, so a file of billions of positions needs a few hundred
+ * mappings rather than one for every block. Uncompressed blocks are read straight from the mapping, nothing is copied;
+ * compressed blocks are inflated into an array that is reused for every block.
+ */
+final class TrainingDataReader implements AutoCloseable
+{
+   private static final long WINDOW_BYTES = 1L << 28; // Bytes of the file mapped at once, unless a block is bigger
+
+   private final FileChannel channel;
+   private final long size;
+   private final Inflater inflater = new Inflater();
+
+   private long next; // Where the next block starts in the file
+   private ByteBuffer window; // The mapped part of the file
+   private long windowStart; // Where the window starts in the file
+   private byte[] input; // Reused for compressed blocks, as stored
+   private ByteBuffer inflated; // Reused for compressed blocks, after inflating
+   private ByteBuffer columns; // Holds the current block's column data, the window or inflated
+   private int count;
+
+   // Where each column starts in columns
+   private int redStart;
+   private int yellowStart;
+   private int metaStart;
+   private int resultStart;
+   private int valueStart;
+
+   /**
+    * @param file The file to read
+    * @throws IOException If the file can't be opened
+    */
+   TrainingDataReader(Path file) throws IOException
+   {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+      size = channel.size();
+   }
+
+   /**
+    * Moves to the next block.
+    *
+    * @return False if there are no more blocks
+    * @throws IOException If the file can't be read, or isn't training data
+    */
+   boolean next() throws IOException
+   {
+      if (next >= size)
+         return false;
+
+      int header = map(next, TrainingDataWriter.HEADER_BYTES);
+      if (window.getInt(header) != TrainingDataWriter.MAGIC)
+         throw new IOException("Not a training data block at " + next);
+      count = window.getInt(header + 4);
+      int flags = window.getInt(header + 8);
+      int stored = window.getInt(header + 12);
+
+      long start = next + TrainingDataWriter.HEADER_BYTES;
+      int data = map(start, stored);
+      if ((flags & TrainingDataWriter.FLAG_DEFLATED) != 0)
+      {
+         inflate(data, stored, TrainingDataWriter.columnBytes(count));
+         columns = inflated;
+         redStart = 0;
+      } else
+      {
+         columns = window;
+         redStart = data;
+      }
+      next = start + TrainingDataWriter.padded(stored);
+
+      yellowStart = redStart + Bitboard.BOARDS * count * Long.BYTES;
+      metaStart = yellowStart + Bitboard.BOARDS * count * Long.BYTES;
+      resultStart = metaStart + TrainingDataWriter.padded(count * Integer.BYTES);
+      valueStart = resultStart + TrainingDataWriter.padded(count);
+      return true;
+   }
+
+   /**
+    * @return The number of positions in the current block
+    */
+   int count()
+   {
+      return count;
+   }
+
+   /**
+    * @param board The Connect-4 game
+    * @param i     The position in the block
+    * @return Red's bitboard
+    */
+   long red(int board, int i)
+   {
+      return columns.getLong(redStart + (board * count + i) * Long.BYTES);
+   }
+
+   /**
+    * @param board The Connect-4 game
+    * @param i     The position in the block
+    * @return Yellow's bitboard
+    */
+   long yellow(int board, int i)
+   {
+      return columns.getLong(yellowStart + (board * count + i) * Long.BYTES);
+   }
+
+   /**
+    * @param i The position in the block
+    * @return The Tic-Tac-Toe masks and side to move, laid out as described in TrainingDataWriter
+    */
+   int meta(int i)
+   {
+      return columns.getInt(metaStart + i * Integer.BYTES);
+   }
+
+   /**
+    * @param i The position in the block
+    * @return The result of the game the position came from
+    */
+   int result(int i)
+   {
+      return columns.get(resultStart + i);
+   }
+
+   /**
+    * @param i The position in the block
+    * @return The search score of the position, from red's point of view
+    */
+   float value(int i)
+   {
+      return columns.getFloat(valueStart + i * Float.BYTES);
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      inflater.end();
+      channel.close();
+   }
+
+   /**
+    * Makes sure part of the file is mapped, moving the window up to it if not
+    *
+    * @return Where the part starts in the window
+    */
+   private int map(long position, int bytes) throws IOException
+   {
+      if (position + bytes > size)
+         throw new IOException("Block cut short at " + next);
+      if (window == null || position < windowStart || position + bytes > windowStart + window.capacity())
+      {
+         windowStart = position;
+         long length = Math.min(Math.max(WINDOW_BYTES, bytes), size - position);
+         window = channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ByteOrder.LITTLE_ENDIAN);
+      }
+      return (int) (position - windowStart);
+   }
+
+   private void inflate(int data, int stored, int bytes) throws IOException
+   {
+      if (input == null || input.length < stored)
+         input = new byte[stored];
+      if (inflated == null || inflated.capacity() < bytes)
+         inflated = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+      window.position(data); // Only absolute reads are used otherwise, so the window's position is free to move
+      window.get(input, 0, stored);
+
+      inflater.reset();
+      inflater.setInput(input, 0, stored);
+      try
+      {
+         int filled = 0;
+         while (! inflater.finished() && filled < bytes)
+         {
+            int n = inflater.inflate(inflated.array(), filled, bytes - filled);
+            if (n == 0 && inflater.needsInput())
+               throw new IOException("Compressed block cut short at " + next);
+            filled += n;
+         }
+      } catch (DataFormatException e)
+      {
+         throw new IOException("Bad compressed block at " + next, e);
+      }
+   }
+}
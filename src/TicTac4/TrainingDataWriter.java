@@ -0,0 +1,435 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Writes labelled positions from finished games to a file, for training evaluators away from the game. Positions are
+ * gathered into blocks, and each block is stored one column at a time (every position's board 0, then every
+ * position's board 1, and so on) so a reader can map a block and use each column as an array.
+ * <p>
+ * Any number of threads can add games. A fixed number of blocks are made up front and passed between the threads
+ * adding games and the one thread writing to the file, so memory stays the same however many positions are written.
+ * If the disk can't keep up, adding a game waits for a block to be written and handed back.
+ * <p>
+ * A block, all little-endian:
+ * | int    | MAGIC
+ * | int    | Number of positions, n
+ * | int    | Flags, FLAG_DEFLATED if the columns are compressed
+ * | int    | Bytes of column data stored after this header, before padding
+ * | long[] | Red's bitboard for board 0 of each position, then board 1, ... board 8 (9 * n longs)
+ * | long[] | Yellow's bitboards, the same way (9 * n longs)
+ * | int[]  | Red wins | yellow wins << 9 | ties << 18 | yellow to move << 27, for each position
+ * | byte[] | Result of the game the position came from: StateArena.RED, YELLOW or DRAW
+ * | float[]| Search score of the position, from red's point of view
+ * Every column, and the column data as a whole, is padded to a multiple of 8 bytes.
+ */
+final class TrainingDataWriter implements AutoCloseable
+{
+   static final int MAGIC = 0x54543442; // "TT4B"
+   static final int HEADER_BYTES = 16;
+   static final int FLAG_DEFLATED = 1;
+
+   private static final int BLOCKS = 4; // Blocks in use at once, one being filled and the rest waiting to be written
+
+   private final FileChannel channel;
+   private final boolean compress;
+   private final int blockPositions;
+   private final BlockingQueue<Block> free;
+   private final BlockingQueue<Block> full;
+   private final Block done = new Block(0); // Put in the full queue to stop the writing thread
+   private final Thread writerThread;
+
+   private final ByteBuffer out; // One block, laid out for the file
+   private final ByteBuffer compressed; // The same block after compression, if compressing
+   private final Deflater deflater;
+
+   private Block current; // The block being filled, only touched while holding this object's lock
+   private volatile IOException failure; // Set if the writing thread fails
+   private long positions;
+
+   /**
+    * A game being played, kept until the result is known. Each thread playing games should reuse its own.
+    */
+   static final class Game
+   {
+      static final int MAX_POSITIONS = Bitboard.BOARDS * Bitboard.ROWS * Bitboard.COLUMNS; // Every cell filled
+
+      private final long[] red = new long[Bitboard.BOARDS * MAX_POSITIONS];
+      private final long[] yellow = new long[Bitboard.BOARDS * MAX_POSITIONS];
+      private final int[] meta = new int[MAX_POSITIONS];
+      private final float[] value = new float[MAX_POSITIONS];
+      private int count;
+
+      /**
+       * Starts a new game, forgetting the positions of the last one
+       */
+      void clear()
+      {
+         count = 0;
+      }
+
+      /**
+       * Records a position from the game
+       *
+       * @param arena  The arena holding the position
+       * @param handle The position
+       * @param value  The search score of the position, from red's point of view
+       */
+      void add(StateArena arena, int handle, float value)
+      {
+         for (int b = 0; b < Bitboard.BOARDS; b++)
+         {
+            red[b * MAX_POSITIONS + count] = arena.red(handle, b);
+            yellow[b * MAX_POSITIONS + count] = arena.yellow(handle, b);
+         }
+         meta[count] = arena.redMask(handle) | arena.yellowMask(handle) << Bitboard.BOARDS
+                 | arena.tiedMask(handle) << (2 * Bitboard.BOARDS)
+                 | (arena.isRedToMove(handle) ? 0 : 1) << (3 * Bitboard.BOARDS);
+         this.value[count] = value;
+         count++;
+      }
+
+      /**
+       * @return The number of positions recorded
+       */
+      int size()
+      {
+         return count;
+      }
+
+      /**
+       * Sends the positions to another process, read them back with read
+       *
+       * @param out Where to write them
+       * @throws IOException If they can't be written
+       */
+      void write(DataOutput out) throws IOException
+      {
+         out.writeInt(count);
+         for (int i = 0; i < count; i++)
+         {
+            for (int b = 0; b < Bitboard.BOARDS; b++)
+            {
+               out.writeLong(red[b * MAX_POSITIONS + i]);
+               out.writeLong(yellow[b * MAX_POSITIONS + i]);
+            }
+            out.writeInt(meta[i]);
+            out.writeFloat(value[i]);
+         }
+      }
+
+      /**
+       * Replaces the positions with ones sent by write
+       *
+       * @param in Where to read them from
+       * @throws IOException If they can't be read, or don't look like a game
+       */
+      void read(DataInput in) throws IOException
+      {
+         int n = in.readInt();
+         if (n < 0 || n > MAX_POSITIONS)
+            throw new IOException("Bad game record of " + n + " positions");
+         for (int i = 0; i < n; i++)
+         {
+            for (int b = 0; b < Bitboard.BOARDS; b++)
+            {
+               red[b * MAX_POSITIONS + i] = in.readLong();
+               yellow[b * MAX_POSITIONS + i] = in.readLong();
+            }
+            meta[i] = in.readInt();
+            value[i] = in.readFloat();
+         }
+         count = n;
+      }
+   }
+
+   /**
+    * Opens the file, replacing anything already in it, and starts the thread that writes to it.
+    *
+    * @param file           The file to write
+    * @param blockPositions The number of positions in each block
+    * @param compress       True to compress each block, which saves space but means it can't be mapped directly
+    * @throws IOException If the file can't be opened
+    */
+   TrainingDataWriter(Path file, int blockPositions, boolean compress) throws IOException
+   {
+      this.blockPositions = blockPositions;
+      this.compress = compress;
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+
+      free = new ArrayBlockingQueue<>(BLOCKS);
+      full = new ArrayBlockingQueue<>(BLOCKS + 1);
+      for (int i = 1; i < BLOCKS; i++)
+      {
+         free.add(new Block(blockPositions));
+      }
+      current = new Block(blockPositions);
+
+      int bytes = HEADER_BYTES + columnBytes(blockPositions);
+      // Deflater only takes arrays on Java 8, so compressing blocks are laid out on the heap
+      out = (compress ? ByteBuffer.allocate(bytes) : ByteBuffer.allocateDirect(bytes)).order(ByteOrder.LITTLE_ENDIAN);
+      // Deflate can make incompressible data slightly bigger, so leave some room
+      compressed = compress ? ByteBuffer.allocate(bytes + bytes / 100 + 1024).order(ByteOrder.LITTLE_ENDIAN) : null;
+      deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+
+      writerThread = new Thread(this::writeBlocks, "TicTac4 training data writer");
+      writerThread.start();
+   }
+
+   /**
+    * Adds every position of a finished game, all labelled with the game's result. Waits if the file is behind.
+    *
+    * @param game   The game's positions
+    * @param result The game's result: StateArena.RED, YELLOW or DRAW
+    * @throws IOException If writing the file failed
+    */
+   synchronized void write(Game game, int result) throws IOException
+   {
+      checkFailure();
+      int from = 0;
+      while (from < game.count)
+      {
+         int n = Math.min(game.count - from, blockPositions - current.count);
+         current.add(game, from, n, (byte) result);
+         from += n;
+         if (current.count == blockPositions)
+            swap();
+      }
+      positions += game.count;
+   }
+
+   /**
+    * @return The number of positions added so far
+    */
+   synchronized long positions()
+   {
+      return positions;
+   }
+
+   /**
+    * Writes anything left, waits for the file to be written, and closes it.
+    *
+    * @throws IOException If writing the file failed
+    */
+   @Override
+   public synchronized void close() throws IOException
+   {
+      try
+      {
+         if (current.count > 0)
+            full.put(current);
+         full.put(done);
+         writerThread.join();
+      } catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new IOException("Interrupted while closing", e);
+      } finally
+      {
+         channel.close();
+         if (deflater != null)
+            deflater.end();
+      }
+      checkFailure();
+   }
+
+   /**
+    * Hands the full block to the writing thread, and waits for an empty one to fill next
+    */
+   private void swap() throws IOException
+   {
+      try
+      {
+         full.put(current);
+         current = free.take();
+      } catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new IOException("Interrupted while waiting for the file", e);
+      }
+      checkFailure();
+   }
+
+   private void checkFailure() throws IOException
+   {
+      if (failure != null)
+         throw new IOException("Writing training data failed", failure);
+   }
+
+   /**
+    * The writing thread: takes full blocks, writes them, and hands them back empty
+    */
+   private void writeBlocks()
+   {
+      try
+      {
+         for (Block block = full.take(); block != done; block = full.take())
+         {
+            if (failure == null)
+            {
+               try
+               {
+                  writeBlock(block);
+               } catch (IOException e)
+               {
+                  failure = e; // Keep emptying the queue so no one waits forever
+               }
+            }
+            block.count = 0;
+            free.put(block);
+         }
+      } catch (InterruptedException e)
+      {
+         failure = new IOException("Writer thread interrupted", e);
+      }
+   }
+
+   private void writeBlock(Block block) throws IOException
+   {
+      int n = block.count;
+      out.clear();
+      out.position(HEADER_BYTES);
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         for (int i = 0; i < n; i++)
+         {
+            out.putLong(block.red[b * blockPositions + i]);
+         }
+      }
+      for (int b = 0; b < Bitboard.BOARDS; b++)
+      {
+         for (int i = 0; i < n; i++)
+         {
+            out.putLong(block.yellow[b * blockPositions + i]);
+         }
+      }
+      for (int i = 0; i < n; i++)
+      {
+         out.putInt(block.meta[i]);
+      }
+      pad(out);
+      out.put(block.result, 0, n);
+      pad(out);
+      for (int i = 0; i < n; i++)
+      {
+         out.putFloat(block.value[i]);
+      }
+      pad(out);
+      out.flip();
+
+      ByteBuffer data = out;
+      int flags = 0;
+      if (compress)
+      {
+         compressed.clear();
+         compressed.position(HEADER_BYTES);
+         deflater.reset();
+         deflater.setInput(out.array(), HEADER_BYTES, out.limit() - HEADER_BYTES);
+         deflater.finish();
+         while (! deflater.finished())
+         {
+            int written = deflater.deflate(compressed.array(), compressed.position(), compressed.remaining());
+            compressed.position(compressed.position() + written);
+         }
+         pad(compressed);
+         compressed.flip();
+         data = compressed;
+         flags = FLAG_DEFLATED;
+      }
+
+      int stored = compress ? (int) deflater.getBytesWritten() : data.limit() - HEADER_BYTES;
+      data.putInt(0, MAGIC).putInt(4, n).putInt(8, flags).putInt(12, stored);
+      data.position(0);
+      while (data.hasRemaining())
+      {
+         channel.write(data);
+      }
+   }
+
+   /**
+    * @return The bytes of column data for a block of n positions, without compression
+    */
+   static int columnBytes(int n)
+   {
+      return 2 * Bitboard.BOARDS * n * Long.BYTES + padded(n * Integer.BYTES) + padded(n) + padded(n * Float.BYTES);
+   }
+
+   static int padded(int bytes)
+   {
+      return (bytes + 7) & ~ 7;
+   }
+
+   private static void pad(ByteBuffer buffer)
+   {
+      while ((buffer.position() & 7) != 0)
+      {
+         buffer.put((byte) 0);
+      }
+   }
+
+   /**
+    * One block's worth of positions, column by column
+    */
+   private static final class Block
+   {
+      private final int capacity;
+      private final long[] red;
+      private final long[] yellow;
+      private final int[] meta;
+      private final byte[] result;
+      private final float[] value;
+      private int count;
+
+      Block(int capacity)
+      {
+         this.capacity = capacity;
+         red = new long[Bitboard.BOARDS * capacity];
+         yellow = new long[Bitboard.BOARDS * capacity];
+         meta = new int[capacity];
+         result = new byte[capacity];
+         value = new float[capacity];
+      }
+
+      /**
+       * Copies n positions of the game, starting at from, onto the end of this block
+       */
+      void add(Game game, int from, int n, byte gameResult)
+      {
+         for (int b = 0; b < Bitboard.BOARDS; b++)
+         {
+            System.arraycopy(game.red, b * Game.MAX_POSITIONS + from, red, b * capacity + count, n);
+            System.arraycopy(game.yellow, b * Game.MAX_POSITIONS + from, yellow, b * capacity + count, n);
+         }
+         System.arraycopy(game.meta, from, meta, count, n);
+         System.arraycopy(game.value, from, value, count, n);
+         for (int i = count; i < count + n; i++)
+         {
+            result[i] = gameResult;
+         }
+         count += n;
+      }
+   }
+}
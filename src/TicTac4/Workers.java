@@ -0,0 +1,88 @@
+/*
+ * Project TicTac4, 2018-04-23T10:24-0500
+ *
+ * Copyright 2018 Austin FitzGerald
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package TicTac4;
+
+/**
+ * Runs the same job on several threads and waits for all of them, so that a job failing on any thread is thrown to the
+ * caller instead of only ending that thread. Used by SelfPlay, NTupleTrainer and SelfPlayCluster.
+ */
+final class Workers
+{
+   /**
+    * The work done by each thread
+    *
+    * @param <E> The checked exception the job can throw
+    */
+   interface Job<E extends Exception>
+   {
+      /**
+       * @param worker Which thread this is, from 0
+       * @throws E If the work can't be done
+       */
+      void run(int worker) throws E;
+   }
+
+   private Workers()
+   {
+   }
+
+   /**
+    * Runs the job on the given number of threads, and returns once every thread has finished.
+    *
+    * @param name    The name of the threads, each followed by its number
+    * @param threads How many threads to run the job on
+    * @param job     The job
+    * @param <E>     The checked exception the job can throw
+    * @throws E                    The first exception thrown by the job on any thread, as are runtime exceptions and
+    *                              errors
+    * @throws InterruptedException If interrupted while waiting for the threads to finish
+    */
+   @SuppressWarnings("unchecked")
+   static <E extends Exception> void run(String name, int threads, Job<E> job) throws E, InterruptedException
+   {
+      Thread[] workers = new Thread[threads];
+      Throwable[] failure = new Throwable[1];
+      for (int t = 0; t < threads; t++)
+      {
+         int worker = t;
+         workers[t] = new Thread(() -> {
+            try
+            {
+               job.run(worker);
+            } catch (Throwable e)
+            {
+               synchronized (failure)
+               {
+                  if (failure[0] == null)
+                     failure[0] = e;
+               }
+            }
+         }, name + " " + t);
+         workers[t].start();
+      }
+
+      for (Thread worker : workers)
+      {
+         worker.join();
+      }
+      synchronized (failure)
+      {
+         if (failure[0] instanceof RuntimeException)
+            throw (RuntimeException) failure[0];
+         if (failure[0] instanceof Error)
+            throw (Error) failure[0];
+         if (failure[0] != null)
+            throw (E) failure[0]; // The job can only throw E or unchecked exceptions
+      }
+   }
+}